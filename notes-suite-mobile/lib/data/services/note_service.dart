@@ -42,6 +42,8 @@ class NoteService {
             if (visibility != null && visibility.isNotEmpty) 'visibility': visibility,
             'page': page,
             'size': size,
+            // Les notes sont stockées en local pour le mode hors ligne : contenu complet requis
+            'view': 'full',
           },
         );
 
@@ -93,6 +95,8 @@ class NoteService {
             if (tag != null) 'tag': tag,
             'page': page,
             'size': size,
+            // Les notes sont stockées en local pour le mode hors ligne : contenu complet requis
+            'view': 'full',
           },
         );
 
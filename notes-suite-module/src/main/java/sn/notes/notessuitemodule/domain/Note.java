@@ -2,9 +2,14 @@ package sn.notes.notessuitemodule.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Length;
 import org.hibernate.annotations.UpdateTimestamp;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
+import sn.notes.notessuitemodule.domain.support.MarkdownExcerpt;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+import sn.notes.notessuitemodule.repository.support.NoteContentCompressor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,14 +17,18 @@ import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        // Liste des notes d'un utilisateur et pagination par curseur sur (updatedAt, id)
+        @Index(name = "idx_notes_owner_updated_at_id", columnList = "owner_id, updated_at, id")
+})
+@EntityListeners(NoteContentCompressor.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Note extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("notes_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,9 +38,29 @@ public class Note extends Auditable<Integer> {
     @Column(nullable = false)
     private String title;
 
+    // Corps en clair, null quand il est stocké compressé dans contentDeflated
     @Column(columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String contentMd;
 
+    // Corps des notes longues compressé par NoteContentCompressor, lu seulement quand le contenu est demandé
+    @Column(name = "content_deflated", length = Length.LONG32)
+    @Setter(AccessLevel.NONE)
+    private byte[] contentDeflated;
+
+    // Corps décompressé au premier accès, ou conservé à la compression
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String inflatedContent;
+
+    // Aperçu en texte brut du contenu, lu par les listes à la place de contentMd
+    @Column(length = MarkdownExcerpt.MAX_LENGTH + 1)
+    private String excerpt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -49,4 +78,35 @@ public class Note extends Auditable<Integer> {
 
     @OneToMany(mappedBy = "note", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PublicLink> publicLinks = new ArrayList<>();
+
+    public String getContentMd() {
+        if (contentMd == null && contentDeflated != null && inflatedContent == null) {
+            inflatedContent = NoteContentCodec.inflate(contentDeflated);
+        }
+        return contentMd != null ? contentMd : inflatedContent;
+    }
+
+    public void setContentMd(String contentMd) {
+        this.contentMd = contentMd;
+        this.contentDeflated = null;
+        this.inflatedContent = null;
+    }
+
+    /**
+     * Stores the body in its compressed form from the next write on, keeping the text for the rest of the session.
+     */
+    public void compressContent(byte[] deflated) {
+        inflatedContent = contentMd;
+        contentMd = null;
+        contentDeflated = deflated;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateExcerpt() {
+        // Corps compressé et jamais lu : inchangé, son extrait aussi
+        if (contentDeflated == null || inflatedContent != null) {
+            excerpt = MarkdownExcerpt.of(getContentMd());
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package sn.notes.notessuitemodule.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Saved version of the content of a note, identified by the SHA-256 of its content. Stored either as a
+ * compressed snapshot or as the edits from the previous revision, see NoteRevisionStore.
+ */
+@Entity
+@Table(name = "note_revisions", uniqueConstraints = {
+        // Numéros consécutifs par note, lus par plage depuis le dernier snapshot
+        @UniqueConstraint(name = "uk_note_revisions_note_revision", columnNames = {"note_id", "revision"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NoteRevision {
+    @Id
+    @PooledSequence("note_revisions_seq")
+    private Long id;
+
+    // Supprimées avec la note par la base, sans les charger
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "note_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Note note;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private int contentLength;
+
+    // Révisions en delta depuis le dernier snapshot, 0 pour un snapshot
+    @Column(nullable = false)
+    private int chainLength;
+
+    // Snapshot compressé ou edits depuis la révision précédente
+    @Column(nullable = false, length = Length.LONG32)
+    private byte[] data;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public boolean isSnapshot() {
+        return chainLength == 0;
+    }
+}
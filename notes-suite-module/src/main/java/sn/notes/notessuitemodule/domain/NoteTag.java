@@ -3,6 +3,7 @@ package sn.notes.notessuitemodule.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
@@ -13,7 +14,7 @@ import sn.notes.notessuitemodule.domain.audit.Auditable;
 @Builder
 public class NoteTag extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("note_tags_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,20 +2,25 @@ package sn.notes.notessuitemodule.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
 
 import java.time.LocalDateTime;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "public_links")
+@Table(name = "public_links", indexes = {
+        // Balayage des liens expirés
+        @Index(name = "idx_public_links_expires_at", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class PublicLink extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("public_links_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,4 +31,10 @@ public class PublicLink extends Auditable<Integer> {
     private String urlToken;
 
     private LocalDateTime expiresAt;
+
+    // Incrémenté en base par PublicLinkViewCounter uniquement, jamais réécrit par l'entité
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private long viewCount = 0;
 }
@@ -4,17 +4,21 @@ import jakarta.persistence.*;
 import lombok.*;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
 import sn.notes.notessuitemodule.domain.enums.Permission;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "shares")
+@Table(name = "shares", indexes = {
+        // Notes partagées avec un utilisateur (EXISTS par note) et contrôle d'accès d'une note partagée
+        @Index(name = "idx_shares_shared_with_user_note", columnList = "shared_with_user_id, note_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Share extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("shares_seq")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
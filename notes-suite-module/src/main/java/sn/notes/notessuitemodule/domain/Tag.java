@@ -3,6 +3,7 @@ package sn.notes.notessuitemodule.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +17,7 @@ import java.util.List;
 @Builder
 public class Tag  extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("tags_seq")
     private Long id;
 
     @Column(unique = true, nullable = false)
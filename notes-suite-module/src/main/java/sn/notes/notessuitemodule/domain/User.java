@@ -3,6 +3,8 @@ package sn.notes.notessuitemodule.domain;
 import jakarta.persistence.*;
 import lombok.*;
 import sn.notes.notessuitemodule.domain.audit.Auditable;
+import sn.notes.notessuitemodule.domain.id.PooledSequence;
+import sn.notes.notessuitemodule.service.cache.UserCacheEvictionListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,13 +12,14 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = true)
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User extends Auditable<Integer> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("users_seq")
     private Long id;
 
     @Column(unique = true, nullable = false)
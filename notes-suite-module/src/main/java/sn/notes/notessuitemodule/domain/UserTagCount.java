@@ -0,0 +1,38 @@
+package sn.notes.notessuitemodule.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of notes of a user carrying a tag, kept up to date by the writes on note_tags
+ * so that tag facets are read without aggregating the notes.
+ */
+@Entity
+@Table(name = "user_tag_counts")
+@IdClass(UserTagCount.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTagCount {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "tag_id")
+    private Long tagId;
+
+    @Column(name = "note_count", nullable = false)
+    private long noteCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long tagId;
+    }
+}
@@ -0,0 +1,24 @@
+package sn.notes.notessuitemodule.domain.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates ids from a pooled database sequence, so that Hibernate can batch inserts.
+ * The allocation size is read from the {@value PooledSequenceGenerator#ALLOCATION_SIZE_SETTING} setting.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+    /**
+     * Name of the database sequence.
+     */
+    String value();
+}
@@ -0,0 +1,43 @@
+package sn.notes.notessuitemodule.domain.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_SETTING = "notes.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = getAllocationSize(serviceRegistry);
+
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    public static int getAllocationSize(ServiceRegistry serviceRegistry) {
+        return ConfigurationHelper.getInt(
+                ALLOCATION_SIZE_SETTING,
+                serviceRegistry.requireService(ConfigurationService.class).getSettings(),
+                DEFAULT_ALLOCATION_SIZE
+        );
+    }
+}
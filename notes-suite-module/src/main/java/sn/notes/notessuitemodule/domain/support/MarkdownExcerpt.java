@@ -0,0 +1,46 @@
+package sn.notes.notessuitemodule.domain.support;
+
+import java.util.regex.Pattern;
+
+/**
+ * Plain-text preview of a Markdown body, stored with the note so that lists never read the full content.
+ */
+public final class MarkdownExcerpt {
+    public static final int MAX_LENGTH = 200;
+
+    private static final Pattern CODE_FENCE = Pattern.compile("(?m)^\\s*(```|~~~).*$");
+    private static final Pattern IMAGE = Pattern.compile("!\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern LINK = Pattern.compile("\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern LINE_MARKERS = Pattern.compile("(?m)^\\s{0,3}(#{1,6}\\s+|>\\s?|[-*+]\\s+(\\[[ xX]]\\s+)?|\\d+[.)]\\s+)");
+    private static final Pattern HORIZONTAL_RULE = Pattern.compile("(?m)^\\s*([-*_]\\s*){3,}$");
+    private static final Pattern EMPHASIS = Pattern.compile("(\\*{1,3}|_{1,3}|~~|`+)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private MarkdownExcerpt() {
+    }
+
+    public static String of(String markdown) {
+        if (markdown == null) {
+            return null;
+        }
+
+        String text = CODE_FENCE.matcher(markdown).replaceAll("");
+        text = IMAGE.matcher(text).replaceAll("$1");
+        text = LINK.matcher(text).replaceAll("$1");
+        text = HORIZONTAL_RULE.matcher(text).replaceAll("");
+        text = LINE_MARKERS.matcher(text).replaceAll("");
+        text = EMPHASIS.matcher(text).replaceAll("");
+        text = WHITESPACE.matcher(text).replaceAll(" ").strip();
+
+        if (text.length() <= MAX_LENGTH) {
+            return text;
+        }
+
+        // Couper sur un espace pour ne pas tronquer un mot
+        int end = text.lastIndexOf(' ', MAX_LENGTH);
+        if (end < MAX_LENGTH / 2) {
+            end = MAX_LENGTH;
+        }
+        return text.substring(0, end).stripTrailing() + "…";
+    }
+}
@@ -0,0 +1,56 @@
+package sn.notes.notessuitemodule.domain.support;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec of the compressed note bodies: raw deflate (no zlib header) at its fastest level, which keeps most
+ * of the gain on Markdown for a fraction of the CPU cost of the default level.
+ */
+public final class NoteContentCodec {
+    private static final int BUFFER_SIZE = 8192;
+
+    private NoteContentCodec() {
+    }
+
+    public static byte[] deflate(String content) {
+        byte[] input = content.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 3 + 64);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String inflate(byte[] deflated) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(deflated.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated note content");
+                }
+                output.write(buffer, 0, inflated);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted note content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package sn.notes.notessuitemodule.domain.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Line diff of two texts (Myers' O(ND) algorithm, after trimming the common first and last lines), read either
+ * as the edits turning one text into the other or as a unified diff.
+ */
+public final class TextDiff {
+    // Au-delà, le milieu différent est remplacé en bloc : le résultat reste exact, seulement moins fin
+    private static final int MAX_EDIT_DISTANCE = 1000;
+    private static final int CONTEXT_LINES = 3;
+
+    public enum Operation { EQUAL, DELETE, INSERT }
+
+    public record Line(Operation operation, String text) {}
+
+    /**
+     * Replaces deleteCount characters at offset by insert, offsets being taken in the text left by the previous edits.
+     */
+    public record Edit(int offset, int deleteCount, String insert) {}
+
+    private final List<Line> lines;
+
+    private TextDiff(List<Line> lines) {
+        this.lines = lines;
+    }
+
+    public static TextDiff between(String from, String to) {
+        List<String> a = split(from);
+        List<String> b = split(to);
+
+        int prefix = 0;
+        while (prefix < a.size() && prefix < b.size() && a.get(prefix).equals(b.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.size() - prefix && suffix < b.size() - prefix
+                && a.get(a.size() - 1 - suffix).equals(b.get(b.size() - 1 - suffix))) {
+            suffix++;
+        }
+
+        List<Line> lines = new ArrayList<>(a.size() + b.size() - prefix - suffix);
+        a.subList(0, prefix).forEach(line -> lines.add(new Line(Operation.EQUAL, line)));
+        lines.addAll(myers(a.subList(prefix, a.size() - suffix), b.subList(prefix, b.size() - suffix)));
+        a.subList(a.size() - suffix, a.size()).forEach(line -> lines.add(new Line(Operation.EQUAL, line)));
+        return new TextDiff(lines);
+    }
+
+    public List<Line> lines() {
+        return lines;
+    }
+
+    /**
+     * One edit per run of changed lines, in order, narrowed to the characters that differ within those lines.
+     */
+    public List<Edit> edits() {
+        List<Edit> edits = new ArrayList<>();
+        int position = 0;
+        StringBuilder deleted = new StringBuilder();
+        StringBuilder inserted = new StringBuilder();
+
+        for (Line line : lines) {
+            switch (line.operation()) {
+                case DELETE -> deleted.append(line.text());
+                case INSERT -> inserted.append(line.text());
+                case EQUAL -> {
+                    position = addEdit(edits, position, deleted, inserted);
+                    position += line.text().length();
+                }
+            }
+        }
+        addEdit(edits, position, deleted, inserted);
+        return edits;
+    }
+
+    public static String apply(String text, List<Edit> edits) {
+        StringBuilder result = new StringBuilder(text);
+        for (Edit edit : edits) {
+            result.replace(edit.offset(), edit.offset() + edit.deleteCount(), edit.insert());
+        }
+        return result.toString();
+    }
+
+    public int additions() {
+        return (int) lines.stream().filter(line -> line.operation() == Operation.INSERT).count();
+    }
+
+    public int deletions() {
+        return (int) lines.stream().filter(line -> line.operation() == Operation.DELETE).count();
+    }
+
+    /**
+     * Unified diff with three lines of context around each change, empty when the texts are equal.
+     */
+    public String unified() {
+        StringBuilder diff = new StringBuilder();
+        int start = 0;
+        while (true) {
+            int firstChange = nextChange(start);
+            if (firstChange < 0) {
+                return diff.toString();
+            }
+
+            // Un seul bloc pour les changements séparés par au plus deux contextes
+            int from = Math.max(start, firstChange - CONTEXT_LINES);
+            int end = firstChange;
+            int next;
+            while ((next = nextChange(end + 1)) >= 0 && next - end <= 2 * CONTEXT_LINES) {
+                end = next;
+            }
+            int to = Math.min(lines.size(), end + 1 + CONTEXT_LINES);
+
+            appendHunk(diff, from, to);
+            start = to;
+        }
+    }
+
+    // Méthodes utilitaires privées
+
+    private int nextChange(int from) {
+        for (int i = from; i < lines.size(); i++) {
+            if (lines.get(i).operation() != Operation.EQUAL) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void appendHunk(StringBuilder diff, int from, int to) {
+        int oldStart = 1;
+        int newStart = 1;
+        for (int i = 0; i < from; i++) {
+            oldStart += lines.get(i).operation() != Operation.INSERT ? 1 : 0;
+            newStart += lines.get(i).operation() != Operation.DELETE ? 1 : 0;
+        }
+
+        int oldCount = 0;
+        int newCount = 0;
+        StringBuilder body = new StringBuilder();
+        for (Line line : lines.subList(from, to)) {
+            oldCount += line.operation() != Operation.INSERT ? 1 : 0;
+            newCount += line.operation() != Operation.DELETE ? 1 : 0;
+            body.append(switch (line.operation()) {
+                case EQUAL -> ' ';
+                case DELETE -> '-';
+                case INSERT -> '+';
+            });
+            body.append(line.text());
+            if (!line.text().endsWith("\n")) {
+                body.append("\n\\ No newline at end of file\n");
+            }
+        }
+
+        // Comme diff -u : un bloc vide commence à la ligne qui le précède
+        diff.append("@@ -").append(oldCount == 0 ? oldStart - 1 : oldStart).append(',').append(oldCount)
+                .append(" +").append(newCount == 0 ? newStart - 1 : newStart).append(',').append(newCount)
+                .append(" @@\n")
+                .append(body);
+    }
+
+    private static int addEdit(List<Edit> edits, int position, StringBuilder deleted, StringBuilder inserted) {
+        if (deleted.isEmpty() && inserted.isEmpty()) {
+            return position;
+        }
+
+        // Une ligne retouchée ne garde que les caractères changés
+        int prefix = 0;
+        int common = Math.min(deleted.length(), inserted.length());
+        while (prefix < common && deleted.charAt(prefix) == inserted.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix
+                && deleted.charAt(deleted.length() - 1 - suffix) == inserted.charAt(inserted.length() - 1 - suffix)) {
+            suffix++;
+        }
+        // Ne pas couper une paire de substitution : le texte inséré est stocké en UTF-8
+        if (prefix > 0 && Character.isHighSurrogate(inserted.charAt(prefix - 1))) {
+            prefix--;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(inserted.charAt(inserted.length() - suffix))) {
+            suffix--;
+        }
+
+        edits.add(new Edit(position + prefix, deleted.length() - prefix - suffix,
+                inserted.substring(prefix, inserted.length() - suffix)));
+        int next = position + inserted.length();
+        deleted.setLength(0);
+        inserted.setLength(0);
+        return next;
+    }
+
+    private static List<String> split(String text) {
+        List<String> lines = new ArrayList<>();
+        if (text == null) {
+            return lines;
+        }
+        int start = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', start)) >= 0) {
+            lines.add(text.substring(start, newline + 1));
+            start = newline + 1;
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    private static List<Line> myers(List<String> a, List<String> b) {
+        int n = a.size();
+        int m = b.size();
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        // État de v avant chaque étape d, limité aux diagonales [-d - 1, d + 1] lues par cette étape
+        List<int[]> trace = new ArrayList<>();
+
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a.get(x).equals(b.get(y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(a, b, trace, d);
+                }
+            }
+        }
+
+        // Trop de différences : tout supprimer puis tout insérer
+        List<Line> lines = new ArrayList<>(n + m);
+        a.forEach(line -> lines.add(new Line(Operation.DELETE, line)));
+        b.forEach(line -> lines.add(new Line(Operation.INSERT, line)));
+        return lines;
+    }
+
+    private static List<Line> backtrack(List<String> a, List<String> b, List<int[]> trace, int distance) {
+        List<Line> lines = new ArrayList<>();
+        int x = a.size();
+        int y = b.size();
+
+        for (int d = distance; d > 0; d--) {
+            int[] v = trace.get(d);
+            // v couvre les diagonales [-d - 1, d + 1]
+            int base = d + 1;
+            int k = x - y;
+            int previousK = k == -d || (k != d && v[base + k - 1] < v[base + k + 1]) ? k + 1 : k - 1;
+            int previousX = v[base + previousK];
+            int previousY = previousX - previousK;
+
+            while (x > previousX && y > previousY) {
+                lines.add(new Line(Operation.EQUAL, a.get(--x)));
+                y--;
+            }
+            if (previousK == k + 1) {
+                lines.add(new Line(Operation.INSERT, b.get(--y)));
+            } else {
+                lines.add(new Line(Operation.DELETE, a.get(--x)));
+            }
+        }
+        while (x > 0) {
+            lines.add(new Line(Operation.EQUAL, a.get(--x)));
+        }
+
+        Collections.reverse(lines);
+        return lines;
+    }
+}
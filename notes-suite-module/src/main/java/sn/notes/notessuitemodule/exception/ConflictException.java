@@ -0,0 +1,7 @@
+package sn.notes.notessuitemodule.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
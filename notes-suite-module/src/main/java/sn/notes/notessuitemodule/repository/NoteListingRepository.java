@@ -0,0 +1,25 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listing queries that read notes as projections: one query for the rows and their owner email,
+ * one for the tag labels of the whole page, and the count when a page needs it.
+ * Rows carry the stored excerpt; the content column is only read when {@code includeContent} is set.
+ */
+public interface NoteListingRepository {
+    Page<NoteResponse> findListing(Specification<Note> spec, Pageable pageable, boolean includeContent);
+
+    List<NoteResponse> findListing(Specification<Note> spec, Sort sort, int limit, boolean includeContent);
+
+    Map<Long, List<String>> findTagLabelsByNoteIds(Collection<Long> noteIds);
+}
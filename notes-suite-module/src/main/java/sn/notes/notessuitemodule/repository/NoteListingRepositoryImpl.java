@@ -0,0 +1,140 @@
+package sn.notes.notessuitemodule.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class NoteListingRepositoryImpl implements NoteListingRepository {
+    private static final Set<String> SELECTED_PROPERTIES = Set.of("id", "title", "excerpt", "visibility", "updatedAt");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<NoteResponse> findListing(Specification<Note> spec, Pageable pageable, boolean includeContent) {
+        List<NoteResponse> content = findRows(spec, pageable.getSort(), (int) pageable.getOffset(),
+                pageable.getPageSize(), includeContent);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<NoteResponse> findListing(Specification<Note> spec, Sort sort, int limit, boolean includeContent) {
+        return findRows(spec, sort, 0, limit, includeContent);
+    }
+
+    @Override
+    public Map<Long, List<String>> findTagLabelsByNoteIds(Collection<Long> noteIds) {
+        Map<Long, List<String>> labels = new HashMap<>();
+        if (noteIds.isEmpty()) {
+            return labels;
+        }
+
+        entityManager.createQuery("SELECT nt.note.id, t.label FROM NoteTag nt JOIN nt.tag t "
+                        + "WHERE nt.note.id IN :noteIds ORDER BY nt.id", Object[].class)
+                .setParameter("noteIds", noteIds)
+                .getResultStream()
+                .forEach(row -> labels.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                        .add((String) row[1]));
+        return labels;
+    }
+
+    // Méthodes utilitaires privées
+
+    private List<NoteResponse> findRows(Specification<Note> spec, Sort sort, int offset, int limit,
+                                        boolean includeContent) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Note> root = query.from(Note.class);
+        Join<Note, User> owner = root.join("owner");
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                root.get("id").alias("id"),
+                root.get("title").alias("title"),
+                root.get("excerpt").alias("excerpt"),
+                root.get("visibility").alias("visibility"),
+                root.get("updatedAt").alias("updatedAt"),
+                owner.get("email").alias("ownerEmail")
+        ));
+        if (includeContent) {
+            selections.add(root.get("contentMd").alias("contentMd"));
+            selections.add(root.get("contentDeflated").alias("contentDeflated"));
+        }
+        // Avec DISTINCT, les colonnes de tri doivent faire partie de la sélection
+        sort.stream()
+                .filter(order -> !SELECTED_PROPERTIES.contains(order.getProperty()))
+                .forEach(order -> selections.add(root.get(order.getProperty())));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        } else if (query.isDistinct()) {
+            // Ordre posé par la specification (ex. pertinence), lui aussi sélectionné
+            query.getOrderList().forEach(order -> selections.add(order.getExpression()));
+        }
+        query.multiselect(selections);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+        List<Tuple> rows = typedQuery.getResultList();
+
+        Map<Long, List<String>> labels = findTagLabelsByNoteIds(
+                rows.stream().map(row -> row.get("id", Long.class)).toList());
+
+        return rows.stream()
+                .map(row -> new NoteResponse(
+                        row.get("id", Long.class),
+                        row.get("title", String.class),
+                        includeContent ? contentOf(row) : null,
+                        row.get("excerpt", String.class),
+                        null,
+                        row.get("visibility", Visibility.class),
+                        row.get("ownerEmail", String.class),
+                        labels.getOrDefault(row.get("id", Long.class), List.of()),
+                        null,
+                        row.get("updatedAt", LocalDateTime.class)))
+                .toList();
+    }
+
+    private static String contentOf(Tuple row) {
+        byte[] deflated = row.get("contentDeflated", byte[].class);
+        return deflated != null ? NoteContentCodec.inflate(deflated) : row.get("contentMd", String.class);
+    }
+
+    private long count(Specification<Note> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Note> root = query.from(Note.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root));
+        // Un ordre posé par la specification n'a pas de sens pour un comptage
+        query.orderBy(List.of());
+        // La requête de comptage ne doit pas être DISTINCT elle-même
+        query.distinct(false);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
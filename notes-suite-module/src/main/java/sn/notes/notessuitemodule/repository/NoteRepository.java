@@ -1,15 +1,68 @@
 package sn.notes.notessuitemodule.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import sn.notes.notessuitemodule.domain.Note;
 import sn.notes.notessuitemodule.domain.User;
-import sn.notes.notessuitemodule.service.specification.NoteSpecifications;
+import sn.notes.notessuitemodule.service.dto.NoteAccessVersion;
+import sn.notes.notessuitemodule.service.dto.NoteIndexRow;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificationExecutor<Note> {
+public interface NoteRepository extends JpaRepository<Note, Long>, JpaSpecificationExecutor<Note>, NoteListingRepository {
     Page<Note> findByOwner(User owner, Pageable pageable);
+
+    /**
+     * Forward-only cursor over all the notes of a user, fetched 500 rows at a time.
+     * Must be consumed, and closed, inside a transaction.
+     */
+    @Query("SELECT n FROM Note n WHERE n.owner.id = :ownerId ORDER BY n.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Note> streamAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT new sn.notes.notessuitemodule.service.dto.NoteIndexRow("
+            + "n.id, n.owner.id, n.title, n.contentMd, n.contentDeflated, n.excerpt, n.visibility, n.updatedAt) "
+            + "FROM Note n WHERE n.id IN :ids")
+    List<NoteIndexRow> findIndexRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Forward-only cursor over the indexed columns of every note, same constraints as {@link #streamAllByOwnerId}.
+     */
+    @Query("SELECT new sn.notes.notessuitemodule.service.dto.NoteIndexRow("
+            + "n.id, n.owner.id, n.title, n.contentMd, n.contentDeflated, n.excerpt, n.visibility, n.updatedAt) "
+            + "FROM Note n ORDER BY n.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<NoteIndexRow> streamIndexRows();
+
+    @Query("SELECT new sn.notes.notessuitemodule.service.dto.NoteVersion(n.id, n.updatedAt) FROM Note n ORDER BY n.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<NoteVersion> streamVersions();
+
+    @Query("SELECT new sn.notes.notessuitemodule.service.dto.NoteAccessVersion(n.id, n.owner.id, n.updatedAt) "
+            + "FROM Note n WHERE n.id = :id")
+    Optional<NoteAccessVersion> findAccessVersionById(@Param("id") Long id);
+
+    /**
+     * Loads the note and locks its row until the end of the transaction, so that two writers
+     * checking the same base version run one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Note n WHERE n.id = :id")
+    Optional<Note> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sn.notes.notessuitemodule.domain.NoteRevision;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionResponse;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+    Optional<NoteRevision> findFirstByNoteIdOrderByRevisionDesc(Long noteId);
+
+    Optional<NoteRevision> findByNoteIdAndRevision(Long noteId, int revision);
+
+    /**
+     * Revisions from a snapshot to a later revision, the chain read to rebuild that revision.
+     */
+    List<NoteRevision> findByNoteIdAndRevisionBetweenOrderByRevision(Long noteId, int from, int to);
+
+    @Query(value = "SELECT new sn.notes.notessuitemodule.service.dto.NoteRevisionResponse("
+            + "r.revision, r.contentHash, r.contentLength, r.createdAt) "
+            + "FROM NoteRevision r WHERE r.note.id = :noteId",
+            countQuery = "SELECT COUNT(r) FROM NoteRevision r WHERE r.note.id = :noteId")
+    Page<NoteRevisionResponse> findResponsesByNoteId(@Param("noteId") Long noteId, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package sn.notes.notessuitemodule.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+
+import java.util.*;
+
+/**
+ * Set-based access to tags and note_tags: a fixed number of round trips whatever the number of labels.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TagBatchRepository {
+    private static final String POSTGRES_UPSERT_TAG =
+            "INSERT INTO tags (id, label) VALUES (%s, :label) ON CONFLICT (label) DO NOTHING";
+    private static final String H2_UPSERT_TAG =
+            "MERGE INTO tags t USING (VALUES (CAST(:label AS VARCHAR(255)))) s(label) ON t.label = s.label "
+                    + "WHEN NOT MATCHED THEN INSERT (id, label) VALUES (%s, s.label)";
+    private static final String INSERT_NOTE_TAG =
+            "INSERT INTO note_tags (id, note_id, tag_id) VALUES (%s, :noteId, :tagId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public Map<String, Long> findIdsByLabels(Collection<String> labels) {
+        Map<String, Long> ids = new HashMap<>();
+        if (labels.isEmpty()) {
+            return ids;
+        }
+
+        jdbcTemplate.query("SELECT id, label FROM tags WHERE label IN (:labels)",
+                Map.of("labels", labels),
+                rs -> {
+                    ids.put(rs.getString("label"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Returns the id of every label, inserting the missing ones. Concurrent inserts of the same
+     * label are absorbed by the unique constraint on tags.label.
+     */
+    public Map<String, Long> upsertLabels(Collection<String> labels) {
+        Map<String, Long> ids = findIdsByLabels(labels);
+
+        List<String> missing = labels.stream()
+                .filter(label -> !ids.containsKey(label))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            SqlParameterSource[] batch = missing.stream()
+                    .map(label -> new MapSqlParameterSource("label", label))
+                    .toArray(SqlParameterSource[]::new);
+            String upsert = databasePlatform.isPostgres() ? POSTGRES_UPSERT_TAG : H2_UPSERT_TAG;
+            jdbcTemplate.batchUpdate(upsert.formatted(databasePlatform.nextValue("tags_seq")), batch);
+
+            ids.putAll(findIdsByLabels(missing));
+        }
+        return ids;
+    }
+
+    public void insertNoteTags(Map<Long, ? extends Collection<Long>> tagIdsByNoteId) {
+        List<SqlParameterSource> batch = new ArrayList<>();
+        tagIdsByNoteId.forEach((noteId, tagIds) -> tagIds.forEach(tagId ->
+                batch.add(new MapSqlParameterSource()
+                        .addValue("noteId", noteId)
+                        .addValue("tagId", tagId))));
+
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_NOTE_TAG.formatted(databasePlatform.nextValue("note_tags_seq")),
+                    batch.toArray(SqlParameterSource[]::new));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package sn.notes.notessuitemodule.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+
+import java.util.*;
+
+/**
+ * Set-based access to user_tag_counts, the per-user tag counts maintained alongside note_tags.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TagCountRepository {
+    private static final String POSTGRES_ADD_COUNT =
+            "INSERT INTO user_tag_counts (user_id, tag_id, note_count) "
+                    + "SELECT :userId, id, :delta FROM tags WHERE label = :label "
+                    + "ON CONFLICT (user_id, tag_id) DO UPDATE SET note_count = user_tag_counts.note_count + EXCLUDED.note_count";
+    private static final String H2_ADD_COUNT =
+            "MERGE INTO user_tag_counts c USING (SELECT CAST(:userId AS BIGINT) user_id, id tag_id, "
+                    + "CAST(:delta AS BIGINT) delta FROM tags WHERE label = :label) s "
+                    + "ON c.user_id = s.user_id AND c.tag_id = s.tag_id "
+                    + "WHEN MATCHED THEN UPDATE SET note_count = c.note_count + s.delta "
+                    + "WHEN NOT MATCHED THEN INSERT (user_id, tag_id, note_count) VALUES (s.user_id, s.tag_id, s.delta)";
+    private static final String POSTGRES_INSERT_MISSING_COUNT =
+            "INSERT INTO user_tag_counts (user_id, tag_id, note_count) VALUES (:userId, :tagId, :count) "
+                    + "ON CONFLICT (user_id, tag_id) DO NOTHING";
+    private static final String H2_INSERT_MISSING_COUNT =
+            "MERGE INTO user_tag_counts c USING (VALUES (CAST(:userId AS BIGINT), CAST(:tagId AS BIGINT))) s(user_id, tag_id) "
+                    + "ON c.user_id = s.user_id AND c.tag_id = s.tag_id "
+                    + "WHEN NOT MATCHED THEN INSERT (user_id, tag_id, note_count) VALUES (s.user_id, s.tag_id, :count)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    /**
+     * Adds the label deltas to the counts of the user, in the caller's transaction. Labels are applied
+     * in order so that concurrent writers lock the rows of a user in the same order.
+     */
+    public void applyDeltas(Long userId, Map<String, Integer> deltasByLabel) {
+        if (deltasByLabel.isEmpty()) {
+            return;
+        }
+
+        SqlParameterSource[] batch = new TreeMap<>(deltasByLabel).entrySet().stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("label", delta.getKey())
+                        .addValue("delta", delta.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(databasePlatform.isPostgres() ? POSTGRES_ADD_COUNT : H2_ADD_COUNT, batch);
+
+        if (deltasByLabel.values().stream().anyMatch(delta -> delta < 0)) {
+            jdbcTemplate.update("DELETE FROM user_tag_counts WHERE user_id = :userId AND note_count <= 0",
+                    Map.of("userId", userId));
+        }
+    }
+
+    /**
+     * Tags of the user with their number of notes, most used first.
+     */
+    public List<TagUsage> findUsagesByUserId(Long userId) {
+        return jdbcTemplate.query("SELECT t.label, c.note_count FROM user_tag_counts c "
+                        + "JOIN tags t ON t.id = c.tag_id "
+                        + "WHERE c.user_id = :userId AND c.note_count > 0 "
+                        + "ORDER BY c.note_count DESC, t.label",
+                Map.of("userId", userId),
+                (rs, rowNum) -> new TagUsage(rs.getString("label"), rs.getLong("note_count")));
+    }
+
+    /**
+     * Stored counts of the user by tag id.
+     */
+    public Map<Long, Long> findCountsByUserId(Long userId) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT tag_id, note_count FROM user_tag_counts WHERE user_id = :userId",
+                Map.of("userId", userId),
+                rs -> {
+                    counts.put(rs.getLong("tag_id"), rs.getLong("note_count"));
+                });
+        return counts;
+    }
+
+    /**
+     * Counts of the user recomputed from note_tags, by tag id.
+     */
+    public Map<Long, Long> countNoteTagsByUserId(Long userId) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT nt.tag_id, COUNT(*) AS note_count FROM note_tags nt "
+                        + "JOIN notes n ON n.id = nt.note_id "
+                        + "WHERE n.owner_id = :userId GROUP BY nt.tag_id",
+                Map.of("userId", userId),
+                rs -> {
+                    counts.put(rs.getLong("tag_id"), rs.getLong("note_count"));
+                });
+        return counts;
+    }
+
+    public List<Long> findUserIdsAfter(long lastId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE id > :lastId ORDER BY id LIMIT " + limit,
+                Map.of("lastId", lastId), Long.class);
+    }
+
+    /**
+     * Replaces a stored count, unless a concurrent write changed it since it was read (expected is null
+     * for a missing row). Returns whether the count was replaced.
+     */
+    public boolean replaceCount(Long userId, Long tagId, Long expected, long actual) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("tagId", tagId)
+                .addValue("expected", expected)
+                .addValue("count", actual);
+
+        if (expected == null) {
+            String insert = databasePlatform.isPostgres() ? POSTGRES_INSERT_MISSING_COUNT : H2_INSERT_MISSING_COUNT;
+            return jdbcTemplate.update(insert, params) > 0;
+        }
+        if (actual == 0) {
+            return jdbcTemplate.update("DELETE FROM user_tag_counts "
+                    + "WHERE user_id = :userId AND tag_id = :tagId AND note_count = :expected", params) > 0;
+        }
+        return jdbcTemplate.update("UPDATE user_tag_counts SET note_count = :count "
+                + "WHERE user_id = :userId AND tag_id = :tagId AND note_count = :expected", params) > 0;
+    }
+}
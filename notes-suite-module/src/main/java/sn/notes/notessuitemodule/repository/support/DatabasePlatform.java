@@ -0,0 +1,53 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Identifies the database behind the DataSource, for the few statements that need vendor-specific SQL
+ * (PostgreSQL in production, H2 in tests).
+ */
+@Component
+public class DatabasePlatform {
+    private final boolean postgres;
+    // pg_trgm, activée par PostgresSchemaInitializer quand la base le permet ; H2 a son équivalent en Java
+    private volatile boolean trigramSearch = true;
+
+    public DatabasePlatform(DataSource dataSource) {
+        String productName;
+        try {
+            productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine the database product", e);
+        }
+        this.postgres = "PostgreSQL".equalsIgnoreCase(productName);
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    /**
+     * Whether the trigram functions behind the substring ranking and the fuzzy searches can run.
+     */
+    public boolean hasTrigramSearch() {
+        return trigramSearch;
+    }
+
+    void disableTrigramSearch() {
+        trigramSearch = false;
+    }
+
+    /**
+     * SQL expression taking the next value of a sequence, for inserts made outside Hibernate.
+     */
+    public String nextValue(String sequenceName) {
+        return postgres
+                ? "nextval('" + sequenceName + "')"
+                : "NEXT VALUE FOR " + sequenceName;
+    }
+}
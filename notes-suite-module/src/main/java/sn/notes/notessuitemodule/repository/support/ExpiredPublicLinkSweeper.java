@@ -0,0 +1,141 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.PublicLinkDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the expired public links on a schedule, in batches read through the expires_at index, one short
+ * transaction per batch. Like deleting a link by hand, a note left without public link goes back to SHARED
+ * if it still has shares, PRIVATE otherwise. The links removed by each run are recorded in the
+ * {@code notes.public-links.expired.removed} distribution summary.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiredPublicLinkSweeper {
+    private static final int BATCH_SIZE = 500;
+
+    // Liens verrouillés par une autre transaction (suppression manuelle) : laissés au passage suivant
+    private static final String POSTGRES_FIND_EXPIRED =
+            "SELECT id, note_id, url_token FROM public_links WHERE expires_at < :now "
+                    + "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED";
+    private static final String H2_FIND_EXPIRED =
+            "SELECT id, note_id, url_token FROM public_links WHERE expires_at < :now "
+                    + "ORDER BY expires_at LIMIT :limit";
+    private static final String RECOMPUTE_VISIBILITY =
+            "UPDATE notes SET visibility = CASE WHEN EXISTS (SELECT 1 FROM shares s WHERE s.note_id = notes.id) "
+                    + "THEN 'SHARED' ELSE 'PRIVATE' END, updated_at = :updatedAt "
+                    + "WHERE id IN (:noteIds) AND visibility = 'PUBLIC' "
+                    + "AND NOT EXISTS (SELECT 1 FROM public_links pl WHERE pl.note_id = notes.id)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabasePlatform databasePlatform;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notes.public-links.sweep-interval:1h}")
+    private Duration sweepInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-expired-link-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledSweep, 0, sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Deletes the links expired before now and returns how many were removed.
+     */
+    public long sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> deleteBatch(now));
+            removed += deleted;
+        } while (deleted == BATCH_SIZE);
+
+        DistributionSummary.builder("notes.public-links.expired.removed")
+                .description("Expired public links removed per sweep")
+                .baseUnit("links")
+                .register(meterRegistry)
+                .record(removed);
+        return removed;
+    }
+
+    // Méthodes utilitaires privées
+
+    private void scheduledSweep() {
+        try {
+            long removed = sweep();
+            if (removed > 0) {
+                log.info("Removed {} expired public links", removed);
+            }
+        } catch (RuntimeException e) {
+            // Une exception arrêterait les exécutions suivantes
+            log.error("Expired public link sweep failed", e);
+        }
+    }
+
+    private int deleteBatch(LocalDateTime now) {
+        Map<String, Object> params = Map.of("now", now, "limit", BATCH_SIZE);
+        List<ExpiredLink> links = jdbcTemplate.query(
+                databasePlatform.isPostgres() ? POSTGRES_FIND_EXPIRED : H2_FIND_EXPIRED, params,
+                (rs, rowNum) -> new ExpiredLink(rs.getLong("id"), rs.getLong("note_id"), rs.getString("url_token")));
+        if (links.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.update("DELETE FROM public_links WHERE id IN (:ids) AND expires_at < :now",
+                Map.of("ids", links.stream().map(ExpiredLink::id).toList(), "now", now));
+
+        // now n'est que la limite d'expiration : une note modifiée depuis le début du balayage ne doit pas reculer
+        Set<Long> noteIds = new HashSet<>(links.stream().map(ExpiredLink::noteId).toList());
+        jdbcTemplate.update(RECOMPUTE_VISIBILITY, Map.of("noteIds", noteIds, "updatedAt", LocalDateTime.now()));
+
+        links.forEach(link -> eventPublisher.publishEvent(new PublicLinkDeletedEvent(link.urlToken())));
+        eventPublisher.publishEvent(NoteChangedEvent.saved(noteIds));
+        return links.size();
+    }
+
+    private record ExpiredLink(long id, long noteId, String urlToken) {
+    }
+}
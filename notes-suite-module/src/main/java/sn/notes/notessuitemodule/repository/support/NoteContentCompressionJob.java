@@ -0,0 +1,131 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compresses, in background batches keyed on the id, the bodies written in clear before compression was
+ * enabled. A row is only rewritten if its updatedAt did not change since it was read, and the rewrite keeps
+ * updatedAt: the content, hence the version of the note, is the same.
+ */
+@Component
+@ConditionalOnProperty(name = "notes.storage.compression.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class NoteContentCompressionJob {
+    private static final int BATCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NoteContentCompressor noteContentCompressor;
+    private final DatabasePlatform databasePlatform;
+
+    @Value("${notes.search.engine:database}")
+    private String searchEngine;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void validate() {
+        // Sur PostgreSQL, NoteContentVectors indexe les mots des corps compressés ; le repli LIKE lit content_md
+        if (!"lucene".equals(searchEngine) && !databasePlatform.isPostgres()) {
+            throw new IllegalStateException(
+                    "notes.storage.compression.enabled requires PostgreSQL or notes.search.engine=lucene");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-content-compression");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            try {
+                compressExisting();
+            } catch (RuntimeException e) {
+                log.error("Compression of existing note contents failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compresses the clear bodies long enough to be compressed, and returns the number of notes rewritten.
+     */
+    public long compressExisting() {
+        long lastId = 0;
+        long compressed = 0;
+        long characters = 0;
+        long bytes = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = new ArrayList<>(BATCH_SIZE);
+            List<SqlParameterSource> batch = new ArrayList<>();
+            long[] sizes = new long[2];
+            // Une note sans extrait attend NoteExcerptBackfill, qui lit content_md
+            jdbcTemplate.query("SELECT id, content_md, updated_at FROM notes "
+                            + "WHERE content_md IS NOT NULL AND excerpt IS NOT NULL "
+                            + "AND LENGTH(content_md) >= :minLength AND id > :lastId "
+                            + "ORDER BY id LIMIT " + BATCH_SIZE,
+                    Map.of("minLength", noteContentCompressor.getMinLength(), "lastId", lastId),
+                    rs -> {
+                        ids.add(rs.getLong("id"));
+                        String content = rs.getString("content_md");
+                        byte[] deflated = noteContentCompressor.compress(content);
+                        if (deflated != null) {
+                            batch.add(new MapSqlParameterSource()
+                                    .addValue("id", rs.getLong("id"))
+                                    .addValue("deflated", deflated)
+                                    .addValue("updatedAt", rs.getObject("updated_at", LocalDateTime.class)));
+                            sizes[0] += content.length();
+                            sizes[1] += deflated.length;
+                        }
+                    });
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            if (!batch.isEmpty()) {
+                int[] updated = jdbcTemplate.batchUpdate("UPDATE notes SET content_deflated = :deflated, content_md = NULL "
+                                + "WHERE id = :id AND updated_at = :updatedAt",
+                        batch.toArray(SqlParameterSource[]::new));
+                for (int count : updated) {
+                    // Pilotes renvoyant SUCCESS_NO_INFO (-2) : la ligne est comptée
+                    compressed += count != 0 ? 1 : 0;
+                }
+                characters += sizes[0];
+                bytes += sizes[1];
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        if (compressed > 0) {
+            log.info("Compressed the content of {} notes ({} characters into {} bytes)", compressed, characters, bytes);
+        }
+        return compressed;
+    }
+}
@@ -0,0 +1,58 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+
+/**
+ * Compresses note bodies of at least {@code notes.storage.compression.min-length} characters when
+ * compression is enabled. Also the JPA listener of {@link Note}, instantiated by Spring through
+ * Hibernate's bean container, so that every write goes through it.
+ */
+@Component
+public class NoteContentCompressor {
+    private final boolean enabled;
+    private final int minLength;
+
+    public NoteContentCompressor(@Value("${notes.storage.compression.enabled:false}") boolean enabled,
+                                 @Value("${notes.storage.compression.min-length:4096}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Compressed form of the body, or null when it is stored as is: compression disabled, body too short,
+     * or compressed form not smaller than the text.
+     */
+    public byte[] compress(String content) {
+        if (!enabled || content == null || content.length() < minLength) {
+            return null;
+        }
+        byte[] deflated = NoteContentCodec.deflate(content);
+        return deflated.length < content.length() ? deflated : null;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void compressContent(Note note) {
+        // Corps déjà compressé : getContentMd le décompresserait pour rien
+        if (note.getContentDeflated() != null) {
+            return;
+        }
+        byte[] deflated = compress(note.getContentMd());
+        if (deflated != null) {
+            note.compressContent(deflated);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Words of the compressed note bodies on PostgreSQL. The database only sees their compressed bytes, so
+ * {@code notes.content_vector}, from which the full-text search vector is generated, is written here from the
+ * decompressed text: within the transaction that saved the notes, and in the background at startup for the
+ * bodies compressed before the column existed. Clear bodies are left to the trigger of
+ * {@link PostgresSchemaInitializer}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NoteContentVectors {
+    private static final int BATCH_SIZE = 500;
+    private static final String WRITE_VECTOR =
+            "UPDATE notes SET content_vector = note_content_vector(:content) WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final NoteContentCompressor noteContentCompressor;
+
+    private ExecutorService executor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-content-vectors");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            try {
+                fillMissing();
+            } catch (RuntimeException e) {
+                log.error("Search vectors of compressed note contents could not be filled", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Rewrites the vectors of the saved notes whose body is compressed. Runs synchronously, after the flush
+     * that published the event, so that searches never see a compressed body without its words.
+     */
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (event.deleted() || !noteContentCompressor.isEnabled() || !databasePlatform.isPostgres()) {
+            return;
+        }
+        for (int from = 0; from < event.noteIds().size(); from += BATCH_SIZE) {
+            write(event.noteIds().subList(from, Math.min(from + BATCH_SIZE, event.noteIds().size())));
+        }
+    }
+
+    /**
+     * Fills the vectors of the compressed bodies that have none, and returns the number of notes written.
+     */
+    public long fillMissing() {
+        long lastId = 0;
+        long filled = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<SqlParameterSource> batch = compressedBodies("content_vector IS NULL AND id > :lastId "
+                    + "ORDER BY id LIMIT " + BATCH_SIZE, Map.of("lastId", lastId));
+            if (batch.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(WRITE_VECTOR, batch.toArray(SqlParameterSource[]::new));
+            filled += batch.size();
+            lastId = (Long) batch.get(batch.size() - 1).getValue("id");
+        }
+
+        if (filled > 0) {
+            log.info("Filled the search vectors of {} compressed note contents", filled);
+        }
+        return filled;
+    }
+
+    // Méthodes utilitaires privées
+
+    private void write(Collection<Long> noteIds) {
+        List<SqlParameterSource> batch = compressedBodies("id IN (:ids)", Map.of("ids", noteIds));
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(WRITE_VECTOR, batch.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private List<SqlParameterSource> compressedBodies(String condition, Map<String, Object> params) {
+        List<SqlParameterSource> bodies = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, content_deflated FROM notes "
+                        + "WHERE content_md IS NULL AND content_deflated IS NOT NULL AND " + condition,
+                params,
+                rs -> {
+                    bodies.add(new MapSqlParameterSource()
+                            .addValue("id", rs.getLong("id"))
+                            .addValue("content", NoteContentCodec.inflate(rs.getBytes("content_deflated"))));
+                });
+        return bodies;
+    }
+}
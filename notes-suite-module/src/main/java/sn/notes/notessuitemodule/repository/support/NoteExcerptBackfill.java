@@ -0,0 +1,60 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.domain.support.MarkdownExcerpt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the excerpt of notes written before the column existed, in batches keyed on the id.
+ * New writes compute the excerpt themselves, so the job only finds work once after the upgrade.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NoteExcerptBackfill {
+    private static final int BATCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long lastId = 0;
+        long updated = 0;
+
+        while (true) {
+            List<SqlParameterSource> batch = new ArrayList<>(BATCH_SIZE);
+            jdbcTemplate.query("SELECT id, content_md FROM notes "
+                            + "WHERE excerpt IS NULL AND content_md IS NOT NULL AND id > :lastId "
+                            + "ORDER BY id LIMIT " + BATCH_SIZE,
+                    Map.of("lastId", lastId),
+                    rs -> {
+                        batch.add(new MapSqlParameterSource()
+                                .addValue("id", rs.getLong("id"))
+                                .addValue("excerpt", MarkdownExcerpt.of(rs.getString("content_md"))));
+                    });
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            // Une note modifiée entre-temps a déjà son extrait
+            jdbcTemplate.batchUpdate("UPDATE notes SET excerpt = :excerpt WHERE id = :id AND excerpt IS NULL",
+                    batch.toArray(SqlParameterSource[]::new));
+            updated += batch.size();
+            lastId = (Long) batch.get(batch.size() - 1).getValue("id");
+        }
+
+        if (updated > 0) {
+            log.info("Backfilled the excerpt of {} notes", updated);
+        }
+    }
+}
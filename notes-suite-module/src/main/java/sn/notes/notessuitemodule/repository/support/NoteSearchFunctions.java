@@ -0,0 +1,189 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Search functions over notes, usable from criteria queries. The note id argument only locates the notes
+ * table alias in the query.
+ * <p>
+ * Full-text search: {@code note_search_match(note.id, text)} and {@code note_search_rank(note.id, text)}.
+ * On PostgreSQL they read the {@code search_vector} column maintained by {@link PostgresSchemaInitializer}
+ * (GIN-indexed, title weighted above content) with {@code websearch_to_tsquery} and {@code ts_rank}.
+ * Other databases fall back to a case-insensitive LIKE on the title and the content.
+ * <p>
+ * Trigram search on the title and the tag labels: {@code note_trigram_similar(note.id, fragment)} tolerates typos
+ * through pg_trgm's {@code <%} operator (trigram GIN indexes), {@code note_trigram_similarity(note.id, fragment)}
+ * scores with {@code word_similarity}. H2 gets {@code word_similarity} from {@link TrigramSimilarity}.
+ */
+public class NoteSearchFunctions implements FunctionContributor {
+    public static final String MATCH = "note_search_match";
+    public static final String RANK = "note_search_rank";
+    public static final String TRIGRAM_SIMILAR = "note_trigram_similar";
+    public static final String TRIGRAM_SIMILARITY = "note_trigram_similarity";
+    public static final String LANGUAGE_SETTING = "notes.search.language";
+    public static final String DEFAULT_LANGUAGE = "english";
+
+    // Seuil par défaut de pg_trgm.word_similarity_threshold, appliqué par l'opérateur <%
+    private static final double WORD_SIMILARITY_THRESHOLD = 0.6;
+    private static final Pattern LANGUAGE_NAME = Pattern.compile("[a-z_]+");
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        boolean postgres = functionContributions.getDialect() instanceof PostgreSQLDialect;
+        String language = getLanguage(functionContributions.getServiceRegistry());
+        var basicTypes = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().register(MATCH, new SearchFunction(
+                MATCH, basicTypes.resolve(StandardBasicTypes.BOOLEAN), postgres, language));
+        functionContributions.getFunctionRegistry().register(RANK, new SearchFunction(
+                RANK, basicTypes.resolve(StandardBasicTypes.DOUBLE), postgres, language));
+        functionContributions.getFunctionRegistry().register(TRIGRAM_SIMILAR, new TrigramFunction(
+                TRIGRAM_SIMILAR, basicTypes.resolve(StandardBasicTypes.BOOLEAN), postgres));
+        functionContributions.getFunctionRegistry().register(TRIGRAM_SIMILARITY, new TrigramFunction(
+                TRIGRAM_SIMILARITY, basicTypes.resolve(StandardBasicTypes.DOUBLE), postgres));
+    }
+
+    /**
+     * Text search configuration used for the search vector and the queries, e.g. "english", "french" or "simple".
+     */
+    public static String getLanguage(ServiceRegistry serviceRegistry) {
+        String language = ConfigurationHelper.getString(
+                LANGUAGE_SETTING,
+                serviceRegistry.requireService(ConfigurationService.class).getSettings(),
+                DEFAULT_LANGUAGE
+        );
+        // Le nom est inséré tel quel dans le SQL
+        if (!LANGUAGE_NAME.matcher(language).matches()) {
+            throw new IllegalStateException("Invalid text search language: " + language);
+        }
+        return language;
+    }
+
+    private static class SearchFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final boolean postgres;
+        private final String language;
+
+        SearchFunction(String name, BasicType<?> returnType, boolean postgres, String language) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.postgres = postgres;
+            this.language = language;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> translator) {
+            String note = noteAlias(arguments.get(0));
+            SqlAstNode text = arguments.get(1);
+            boolean rank = RANK.equals(getName());
+
+            if (postgres) {
+                sqlAppender.appendSql(rank ? "ts_rank(" : "(");
+                sqlAppender.appendSql(note + ".search_vector");
+                sqlAppender.appendSql(rank ? ", " : " @@ ");
+                sqlAppender.appendSql("websearch_to_tsquery('" + language + "', ");
+                text.accept(translator);
+                sqlAppender.appendSql("))");
+                return;
+            }
+
+            // Repli sans index : le titre compte plus que le contenu, comme les poids A et B
+            sqlAppender.appendSql(rank ? "(case when " : "(");
+            appendContains(sqlAppender, note + ".title", text, translator);
+            if (rank) {
+                sqlAppender.appendSql(" then 1.0 else 0.4 end)");
+                return;
+            }
+            sqlAppender.appendSql(" or ");
+            appendContains(sqlAppender, note + ".content_md", text, translator);
+            sqlAppender.appendSql(")");
+        }
+
+        private static void appendContains(SqlAppender sqlAppender, String column, SqlAstNode text,
+                                           SqlAstTranslator<?> translator) {
+            sqlAppender.appendSql("lower(" + column + ") like ('%' || lower(");
+            text.accept(translator);
+            sqlAppender.appendSql(") || '%')");
+        }
+
+    }
+
+    private static class TrigramFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final boolean postgres;
+
+        TrigramFunction(String name, BasicType<?> returnType, boolean postgres) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(returnType),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.postgres = postgres;
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> translator) {
+            String note = noteAlias(arguments.get(0));
+            SqlAstNode fragment = arguments.get(1);
+            String tagsOfNote = " from note_tags trgm_nt join tags trgm_t on trgm_t.id = trgm_nt.tag_id"
+                    + " where trgm_nt.note_id = " + note + ".id";
+
+            if (TRIGRAM_SIMILARITY.equals(getName())) {
+                sqlAppender.appendSql("greatest(word_similarity(");
+                fragment.accept(translator);
+                sqlAppender.appendSql(", " + note + ".title), coalesce((select max(word_similarity(");
+                fragment.accept(translator);
+                sqlAppender.appendSql(", trgm_t.label))" + tagsOfNote + "), 0))");
+                return;
+            }
+
+            sqlAppender.appendSql("(");
+            appendSimilar(sqlAppender, note + ".title", fragment, translator);
+            sqlAppender.appendSql(" or exists(select 1" + tagsOfNote + " and ");
+            appendSimilar(sqlAppender, "trgm_t.label", fragment, translator);
+            sqlAppender.appendSql("))");
+        }
+
+        private void appendSimilar(SqlAppender sqlAppender, String column, SqlAstNode fragment,
+                                   SqlAstTranslator<?> translator) {
+            if (postgres) {
+                // Opérateur indexable par gin_trgm_ops, contrairement à l'appel de fonction
+                fragment.accept(translator);
+                sqlAppender.appendSql(" <% " + column);
+                return;
+            }
+            sqlAppender.appendSql("word_similarity(");
+            fragment.accept(translator);
+            sqlAppender.appendSql(", " + column + ") >= " + WORD_SIMILARITY_THRESHOLD);
+        }
+    }
+
+    private static String noteAlias(SqlAstNode argument) {
+        ColumnReference column = argument instanceof Expression expression ? expression.getColumnReference() : null;
+        if (column == null || column.getQualifier() == null) {
+            throw new IllegalArgumentException("The first argument must be the id of a note");
+        }
+        return column.getQualifier();
+    }
+}
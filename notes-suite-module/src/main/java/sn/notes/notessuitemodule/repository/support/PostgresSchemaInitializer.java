@@ -0,0 +1,179 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.domain.id.PooledSequenceGenerator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idempotent PostgreSQL schema steps that Hibernate's ddl-auto=update cannot express.
+ * Runs once the EntityManagerFactory is built, i.e. after Hibernate has updated the schema,
+ * and under an advisory lock so that several instances can start at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSchemaInitializer {
+    private static final long ADVISORY_LOCK_KEY = 0x6e6f746573L;
+
+    // Table -> séquence d'identifiants
+    private static final Map<String, String> ID_SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        ID_SEQUENCES.put("users", "users_seq");
+        ID_SEQUENCES.put("notes", "notes_seq");
+        ID_SEQUENCES.put("tags", "tags_seq");
+        ID_SEQUENCES.put("note_tags", "note_tags_seq");
+        ID_SEQUENCES.put("shares", "shares_seq");
+        ID_SEQUENCES.put("public_links", "public_links_seq");
+        ID_SEQUENCES.put("note_revisions", "note_revisions_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final DatabasePlatform databasePlatform;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void migrate() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+            alignIdSequences();
+            createSearchVector();
+            storeDeflatedContentUncompressed();
+        });
+        // Transaction séparée : une extension refusée n'annule pas les étapes précédentes et n'empêche pas le démarrage
+        if (!createTrigramIndexes()) {
+            databasePlatform.disableTrigramSearch();
+        }
+    }
+
+    /**
+     * Moves ids from IDENTITY columns to pooled sequences: each sequence gets the configured
+     * increment and, when rows were inserted without it, is moved past the highest existing id.
+     */
+    private void alignIdSequences() {
+        int allocationSize = PooledSequenceGenerator.getAllocationSize(
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry());
+
+        ID_SEQUENCES.forEach((table, sequence) -> {
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " INCREMENT BY " + allocationSize);
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + allocationSize);
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+
+            if (maxId != null && lastValue != null && maxId >= lastValue) {
+                // Hibernate (optimiseur "pooled") utilise le bloc ]valeur - incrément, valeur]
+                jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?, false)",
+                        Long.class, sequence, maxId + allocationSize);
+                log.info("Sequence {} moved past existing ids of {} (max id {})", sequence, table, maxId);
+            }
+        });
+    }
+
+    /**
+     * Full-text search vector of the notes, see {@link NoteSearchFunctions}: a stored generated column,
+     * recreated when the configured language changes, and its GIN index. The words of the content come from
+     * {@code content_vector}, which a trigger fills from clear bodies and {@link NoteContentVectors} from
+     * compressed ones, whose text the database cannot read.
+     */
+    private void createSearchVector() {
+        String language = NoteSearchFunctions.getLanguage(
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry());
+        String expression = ("setweight(to_tsvector('%s'::regconfig, coalesce(title, '')), 'A') || "
+                + "setweight(coalesce(content_vector, ''::tsvector), 'B')").formatted(language);
+
+        jdbcTemplate.execute("ALTER TABLE notes ADD COLUMN IF NOT EXISTS content_vector tsvector");
+        jdbcTemplate.execute(("CREATE OR REPLACE FUNCTION note_content_vector(content text) RETURNS tsvector "
+                + "LANGUAGE sql IMMUTABLE AS $$ SELECT to_tsvector('%s'::regconfig, coalesce(content, '')) $$")
+                .formatted(language));
+        // Corps compressé par NoteContentCompressionJob : mêmes mots que le texte remplacé ; par l'application :
+        // NoteContentVectors remplace le vecteur dans la même transaction
+        jdbcTemplate.execute("CREATE OR REPLACE FUNCTION notes_content_vector() RETURNS trigger LANGUAGE plpgsql AS $$ "
+                + "BEGIN "
+                + "IF NEW.content_md IS NOT NULL OR NEW.content_deflated IS NULL THEN "
+                + "NEW.content_vector := note_content_vector(NEW.content_md); "
+                + "ELSIF TG_OP = 'UPDATE' AND OLD.content_md IS NOT NULL THEN "
+                + "NEW.content_vector := note_content_vector(OLD.content_md); "
+                + "END IF; "
+                + "RETURN NEW; "
+                + "END $$");
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS notes_content_vector ON notes");
+        jdbcTemplate.execute("CREATE TRIGGER notes_content_vector "
+                + "BEFORE INSERT OR UPDATE OF content_md, content_deflated ON notes "
+                + "FOR EACH ROW EXECUTE FUNCTION notes_content_vector()");
+
+        String current = jdbcTemplate.query("SELECT a.attgenerated, pg_get_expr(d.adbin, d.adrelid) "
+                        + "FROM pg_attribute a LEFT JOIN pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum "
+                        + "WHERE a.attrelid = 'notes'::regclass AND a.attname = 'search_vector' AND NOT a.attisdropped",
+                rs -> rs.next() ? rs.getString(1) + rs.getString(2) : null);
+
+        if (current != null && !(current.startsWith("s") && current.contains("'" + language + "'::regconfig")
+                && current.contains("content_vector"))) {
+            jdbcTemplate.execute("ALTER TABLE notes DROP COLUMN search_vector");
+            current = null;
+        }
+        if (current == null) {
+            // Contenu dans la langue configurée ; les corps compressés sont recalculés par NoteContentVectors
+            jdbcTemplate.execute("UPDATE notes SET content_vector = CASE WHEN content_deflated IS NULL "
+                    + "THEN note_content_vector(content_md) END");
+            // Réécrit la table une fois : le vecteur de chaque note existante est calculé ici
+            jdbcTemplate.execute("ALTER TABLE notes ADD COLUMN search_vector tsvector "
+                    + "GENERATED ALWAYS AS (" + expression + ") STORED");
+            log.info("Full-text search vector of notes built with language {}", language);
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notes_search_vector ON notes USING GIN (search_vector)");
+    }
+
+    /**
+     * Trigram indexes behind the substring and typo-tolerant searches, see {@link NoteSearchFunctions}:
+     * they serve {@code ILIKE '%fragment%'} as well as the {@code <%} similarity operator. Returns false when
+     * pg_trgm is not installed and cannot be: fragment searches then run without typo tolerance nor indexes.
+     */
+    private boolean createTrigramIndexes() {
+        try {
+            return Boolean.TRUE.equals(new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class))) {
+                    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                            "SELECT EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm')", Boolean.class))) {
+                        log.warn("pg_trgm is not available: fuzzy note searches fall back to substring matching");
+                        return false;
+                    }
+                    jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                }
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notes_title_trgm ON notes USING GIN (title gin_trgm_ops)");
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tags_label_trgm ON tags USING GIN (label gin_trgm_ops)");
+                return true;
+            }));
+        } catch (DataAccessException e) {
+            // Extension disponible mais droits insuffisants pour la créer, par exemple
+            log.warn("pg_trgm could not be enabled: fuzzy note searches fall back to substring matching", e);
+            return false;
+        }
+    }
+
+    /**
+     * Bodies compressed by the application, see {@link NoteContentCompressor}: TOAST stores them out of line
+     * without trying to compress them again.
+     */
+    private void storeDeflatedContentUncompressed() {
+        jdbcTemplate.execute("ALTER TABLE notes ALTER COLUMN content_deflated SET STORAGE EXTERNAL");
+    }
+}
@@ -0,0 +1,168 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the views of public links in memory and adds them to public_links.view_count in one JDBC batch,
+ * on a schedule and at shutdown, so that reading a public note never writes nor locks a row.
+ * Counters are cumulative: a view counted while a flush runs, or a flush that fails, is written by the next one.
+ * The batch runs in one transaction, so a failed flush writes nothing and is not counted twice by the next.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PublicLinkViewCounter {
+    private static final String ADD_VIEWS =
+            "UPDATE public_links SET view_count = view_count + :delta WHERE id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notes.public-links.views.flush-interval:10s}")
+    private Duration flushInterval;
+
+    private final Map<Long, Views> views = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-public-link-views");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Dernier flush : les vues comptées depuis le précédent ne sont pas perdues à l'arrêt
+        scheduledFlush();
+    }
+
+    public void increment(Long linkId) {
+        while (true) {
+            Views counter = views.get(linkId);
+            if (counter == null) {
+                counter = views.computeIfAbsent(linkId, id -> new Views());
+            }
+            if (counter.tryIncrement()) {
+                return;
+            }
+            // Compteur retiré par flush depuis sa lecture : la vue va au compteur vivant
+            views.remove(linkId, counter);
+        }
+    }
+
+    /**
+     * Adds the views counted since the previous flush to the database, links in id order so that concurrent
+     * instances lock the rows in the same order. Returns the number of views written.
+     */
+    public synchronized long flush() {
+        Map<Long, Long> deltas = new TreeMap<>();
+        views.forEach((linkId, counter) -> {
+            long delta = counter.count.sum() - counter.flushed;
+            if (delta > 0) {
+                deltas.put(linkId, delta);
+            } else {
+                // Aucune vue depuis un intervalle entier : compteur retiré, une vue arrivée entre-temps est reportée
+                long late = counter.retire();
+                views.remove(linkId, counter);
+                if (late > 0) {
+                    views.computeIfAbsent(linkId, id -> new Views()).count.add(late);
+                }
+            }
+        });
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("id", delta.getKey())
+                        .addValue("delta", delta.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.batchUpdate(ADD_VIEWS, batch));
+
+        // Écrit : ces vues ne sont plus en attente
+        long written = 0;
+        for (Map.Entry<Long, Long> delta : deltas.entrySet()) {
+            views.get(delta.getKey()).flushed += delta.getValue();
+            written += delta.getValue();
+        }
+        return written;
+    }
+
+    // Méthodes utilitaires privées
+
+    private void scheduledFlush() {
+        try {
+            long written = flush();
+            if (written > 0) {
+                log.debug("Flushed {} public link views", written);
+            }
+        } catch (RuntimeException e) {
+            // Une exception arrêterait les exécutions suivantes ; les vues restent en attente
+            log.error("Public link view flush failed", e);
+        }
+    }
+
+    // Vues comptées depuis le démarrage, et la part déjà écrite (lue et modifiée par flush seulement)
+    private static final class Views {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder incrementing = new LongAdder();
+        private volatile boolean retired;
+        private volatile long flushed;
+
+        boolean tryIncrement() {
+            incrementing.increment();
+            try {
+                if (retired) {
+                    return false;
+                }
+                count.increment();
+                return true;
+            } finally {
+                incrementing.decrement();
+            }
+        }
+
+        // Retire le compteur une fois terminés les incréments qui l'ont vu actif, et renvoie les vues non écrites
+        long retire() {
+            retired = true;
+            while (incrementing.sum() != 0) {
+                Thread.onSpinWait();
+            }
+            return count.sum() - flushed;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.TagCountReport;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes the per-user tag counts from note_tags, one user per transaction, and rewrites the ones
+ * that drifted. Runs at startup, which also fills the counts after the upgrade, then on a schedule.
+ * Stored counts are read before note_tags and rewritten only if unchanged, so a note written during
+ * the check is never overwritten by a stale recount.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TagCountRepairJob {
+    private static final int BATCH_SIZE = 500;
+
+    private final TagCountRepository tagCountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notes.tags.counts.repair-interval:24h}")
+    private Duration repairInterval;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-tag-count-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledRepair, 0, repairInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Compares the stored counts of every user with note_tags without changing them.
+     */
+    public TagCountReport check() {
+        return run(false);
+    }
+
+    public TagCountReport repair() {
+        return run(true);
+    }
+
+    // Méthodes utilitaires privées
+
+    private void scheduledRepair() {
+        try {
+            TagCountReport report = repair();
+            if (!report.consistent()) {
+                log.warn("Tag counts repaired: {}", report);
+            }
+        } catch (RuntimeException e) {
+            // Une exception arrêterait les exécutions suivantes
+            log.error("Tag count repair failed", e);
+        }
+    }
+
+    private TagCountReport run(boolean apply) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(!apply);
+
+        long users = 0;
+        long usersWithDrift = 0;
+        long driftedCounts = 0;
+        long repairedCounts = 0;
+        long lastId = 0;
+
+        List<Long> userIds;
+        while (!(userIds = tagCountRepository.findUserIdsAfter(lastId, BATCH_SIZE)).isEmpty()) {
+            for (Long userId : userIds) {
+                UserDrift drift = transaction.execute(status -> compare(userId, apply));
+                users++;
+                if (drift.drifted() > 0) {
+                    usersWithDrift++;
+                    driftedCounts += drift.drifted();
+                    repairedCounts += drift.repaired();
+                }
+            }
+            lastId = userIds.get(userIds.size() - 1);
+        }
+
+        return new TagCountReport(users, usersWithDrift, driftedCounts, repairedCounts);
+    }
+
+    private UserDrift compare(Long userId, boolean apply) {
+        Map<Long, Long> stored = tagCountRepository.findCountsByUserId(userId);
+        Map<Long, Long> actual = tagCountRepository.countNoteTagsByUserId(userId);
+
+        Set<Long> tagIds = new TreeSet<>(stored.keySet());
+        tagIds.addAll(actual.keySet());
+
+        List<String> drift = new ArrayList<>();
+        int repaired = 0;
+        for (Long tagId : tagIds) {
+            Long expected = stored.get(tagId);
+            long count = actual.getOrDefault(tagId, 0L);
+            if (expected != null && expected == count) {
+                continue;
+            }
+
+            drift.add("tag " + tagId + ": " + (expected != null ? expected : 0) + " -> " + count);
+            if (apply && tagCountRepository.replaceCount(userId, tagId, expected, count)) {
+                repaired++;
+            }
+        }
+
+        if (!drift.isEmpty()) {
+            log.warn("Tag counts of user {} drifted: {}", userId, drift);
+        }
+        return new UserDrift(drift.size(), repaired);
+    }
+
+    // Nombre de comptages faux d'un utilisateur et nombre réécrits
+    private record UserDrift(int drifted, int repaired) {
+    }
+}
@@ -0,0 +1,30 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.service.dto.TagCountReport;
+
+/**
+ * Administration of the per-user tag counts: {@code GET /actuator/tagcounts} reports the drift from note_tags,
+ * {@code POST /actuator/tagcounts} repairs it. Exposed only if listed in
+ * {@code management.endpoints.web.exposure.include} (also available over JMX).
+ */
+@Component
+@Endpoint(id = "tagcounts")
+@RequiredArgsConstructor
+public class TagCountsEndpoint {
+    private final TagCountRepairJob repairJob;
+
+    @ReadOperation
+    public TagCountReport check() {
+        return repairJob.check();
+    }
+
+    @WriteOperation
+    public TagCountReport repair() {
+        return repairJob.repair();
+    }
+}
@@ -0,0 +1,60 @@
+package sn.notes.notessuitemodule.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Java version of pg_trgm's {@code word_similarity}, registered as an H2 function by
+ * {@code db/h2/pg_trgm.sql} so that trigram searches behave the same in tests as on PostgreSQL.
+ */
+public final class TrigramSimilarity {
+    private TrigramSimilarity() {
+    }
+
+    /**
+     * Greatest similarity between the trigrams of the fragment and any continuous extent of the trigrams of the text:
+     * 1 when the fragment is a whole word of the text, less with each differing letter.
+     */
+    public static Double wordSimilarity(String fragment, String text) {
+        if (fragment == null || text == null) {
+            return null;
+        }
+        Set<String> wanted = new HashSet<>(trigrams(fragment));
+        if (wanted.isEmpty()) {
+            return 0.0;
+        }
+
+        List<String> ordered = trigrams(text);
+        double best = 0;
+        for (int from = 0; from < ordered.size(); from++) {
+            Set<String> extent = new HashSet<>();
+            int common = 0;
+            for (int to = from; to < ordered.size(); to++) {
+                String trigram = ordered.get(to);
+                if (extent.add(trigram) && wanted.contains(trigram)) {
+                    common++;
+                }
+                best = Math.max(best, (double) common / (wanted.size() + extent.size() - common));
+            }
+        }
+        return best;
+    }
+
+    // Comme pg_trgm : mots alphanumériques en minuscules, précédés de deux espaces et suivis d'un
+    private static List<String> trigrams(String value) {
+        List<String> trigrams = new ArrayList<>();
+        for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
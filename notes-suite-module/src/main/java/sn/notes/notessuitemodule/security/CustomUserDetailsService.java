@@ -9,8 +9,6 @@ import org.springframework.transaction.annotation.Transactional;
 import sn.notes.notessuitemodule.domain.User;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 
-import java.util.ArrayList;
-
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
@@ -19,12 +17,12 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userService.findByEmail(email);
+        User user = userService.findByEmailForAuthentication(email);
 
-        return new org.springframework.security.core.userdetails.User(
+        return new UserPrincipal(
+                user.getId(),
                 user.getEmail(),
-                user.getPasswordHash(),
-                new ArrayList<>()
+                user.getPasswordHash()
         );
     }
 }
@@ -1,20 +1,37 @@
 package sn.notes.notessuitemodule.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
+    public static final String USER_ID_CLAIM = "uid";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -24,24 +41,44 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Claims déjà vérifiés, indexés par le hash du token et expirés à la date "exp" du token
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.verified-claims");
     }
 
     public String generateAccessToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return generateAccessToken(userDetails.getUsername());
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateAccessToken(userPrincipal.getId(), userPrincipal.getEmail());
     }
 
-    public String generateAccessToken(String email) {
+    public String generateAccessToken(Long userId, String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
                 .subject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -53,29 +90,88 @@ public class JwtTokenProvider {
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Returns the claims of a valid token, verifying its signature only the first time it is seen.
+     * Invalid or expired tokens are never cached.
+     */
+    public Optional<Claims> getVerifiedClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String key = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(key, claims);
+        }
+        return Optional.of(claims);
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getVerifiedClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
 
-        return claims.getSubject();
+    /**
+     * Returns the user id carried by an access token, or null for tokens issued without it.
+     */
+    public static Long getUserId(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
     }
 
     public boolean validateToken(String token) {
+        return getVerifiedClaims(token).isPresent();
+    }
+
+    public long getClaimsCacheHitCount() {
+        return verifiedClaims.stats().hitCount();
+    }
+
+    public long getClaimsCacheMissCount() {
+        return verifiedClaims.stats().missCount();
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -1,10 +1,12 @@
 package sn.notes.notessuitemodule.security.filters;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,16 +14,26 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
-import sn.notes.notessuitemodule.security.CustomUserDetailsService;
+import sn.notes.notessuitemodule.domain.User;
 import sn.notes.notessuitemodule.security.JwtTokenProvider;
+import sn.notes.notessuitemodule.security.UserPrincipal;
+import sn.notes.notessuitemodule.service.cache.UserIdentity;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final UserService userService;
+    private final UserIdentityCache userIdentityCache;
+
+    // Construit le principal à partir des claims du token, sans requête vers la table users
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -30,9 +42,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+            Optional<Claims> claims = tokenProvider.getVerifiedClaims(jwt);
+
+            if (claims.isPresent()) {
+                UserDetails userDetails = resolveUserDetails(claims.get());
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -47,6 +60,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Les réponses en streaming se terminent par un dispatch ASYNC qui doit aussi être authentifié
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private UserDetails resolveUserDetails(Claims claims) {
+        String email = claims.getSubject();
+        Long userId = JwtTokenProvider.getUserId(claims);
+
+        if (statelessPrincipal && userId != null) {
+            userIdentityCache.remember(new UserIdentity(userId, email));
+            return new UserPrincipal(userId, email, null);
+        }
+
+        User user = userService.findByEmail(email);
+        return new UserPrincipal(user.getId(), user.getEmail(), null);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,79 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.notes.notessuitemodule.service.event.NoteAccessChangedEvent;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded cache of share decisions by (note, user), so that reading a shared note does not query the shares.
+ * Entries are invalidated once the transaction that shared, unshared or deleted the note has committed.
+ * A decision read from the database while an invalidation happened is not kept, since it may predate it.
+ */
+@Component
+public class NoteAccessCache {
+    private final Cache<Key, Boolean> decisions;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public NoteAccessCache(MeterRegistry meterRegistry,
+                           @Value("${notes.cache.note-access.ttl:10m}") Duration ttl,
+                           @Value("${notes.cache.note-access.max-size:100000}") long maxSize) {
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, "notes.access");
+    }
+
+    /**
+     * Whether the note is shared with the user, asking the loader on a miss.
+     */
+    public boolean isSharedWith(Long noteId, Long userId, BooleanSupplier loader) {
+        Key key = new Key(noteId, userId);
+        Boolean cached = decisions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        boolean shared = loader.getAsBoolean();
+        decisions.put(key, shared);
+        // Invalidation pendant la lecture : la décision lue est peut-être déjà périmée
+        if (invalidations.get() != generation) {
+            decisions.invalidate(key);
+        }
+        return shared;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessChanged(NoteAccessChangedEvent event) {
+        invalidations.incrementAndGet();
+        decisions.invalidate(new Key(event.noteId(), event.userId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        // Les décisions d'une note ne sont pas indexées par note : parcours des clés, rare (suppression)
+        Set<Long> noteIds = new HashSet<>(event.noteIds());
+        decisions.asMap().keySet().removeIf(key -> noteIds.contains(key.noteId()));
+    }
+
+    private record Key(Long noteId, Long userId) {
+    }
+}
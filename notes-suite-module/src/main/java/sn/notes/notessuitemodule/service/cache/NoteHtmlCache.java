@@ -0,0 +1,42 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.service.dto.NoteHtml;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of rendered note pages by note version (id and updatedAt), so that a note is rendered once per
+ * edit rather than once per view. A write changes the version, hence the key: entries never need invalidating,
+ * those of older versions are simply no longer read and age out.
+ */
+@Component
+public class NoteHtmlCache {
+    private final Cache<NoteVersion, NoteHtml> pages;
+
+    public NoteHtmlCache(MeterRegistry meterRegistry,
+                         @Value("${notes.cache.note-html.ttl:1h}") Duration ttl,
+                         @Value("${notes.cache.note-html.max-size:1000}") long maxSize) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Une note lue souvent reste en cache tant qu'elle ne change pas
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "notes.html");
+    }
+
+    /**
+     * Page of the note version, asking the renderer on a miss; concurrent misses wait for a single rendering.
+     */
+    public NoteHtml get(NoteVersion version, Supplier<String> renderer) {
+        return pages.get(version, key -> new NoteHtml(key, renderer.get()));
+    }
+}
@@ -0,0 +1,110 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.PublicLinkDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the notes served by public links, by token, so that a popular link does not query the database
+ * on every hit. Entries expire with their link, and are invalidated once the transaction that changed or deleted
+ * the note, or deleted the link, has committed. Concurrent misses on a token wait for a single load.
+ */
+@Component
+public class PublicNoteCache {
+    private final Cache<String, PublicNote> notes;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PublicNoteCache(MeterRegistry meterRegistry,
+                           @Value("${notes.cache.public-notes.ttl:10m}") Duration ttl,
+                           @Value("${notes.cache.public-notes.max-size:1000}") long maxSize) {
+        this.notes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LinkExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, notes, "notes.public");
+    }
+
+    /**
+     * Note served by the token, asking the loader on a miss. The loader runs once per token however many
+     * requests miss at the same time; what it throws is not cached.
+     */
+    public PublicNote get(String urlToken, Supplier<PublicNote> loader) {
+        PublicNote cached = notes.getIfPresent(urlToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        PublicNote note = notes.get(urlToken, token -> loader.get());
+        // Invalidation pendant la lecture : la note lue est peut-être déjà périmée
+        if (invalidations.get() != generation) {
+            notes.invalidate(urlToken);
+        }
+        return note;
+    }
+
+    public PublicNote getIfPresent(String urlToken) {
+        return notes.getIfPresent(urlToken);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        invalidations.incrementAndGet();
+        // Les entrées ne sont pas indexées par note : parcours du cache, borné par sa taille
+        Set<Long> noteIds = new HashSet<>(event.noteIds());
+        notes.asMap().values().removeIf(note -> noteIds.contains(note.note().id()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublicLinkDeleted(PublicLinkDeletedEvent event) {
+        invalidations.incrementAndGet();
+        notes.invalidate(event.urlToken());
+    }
+
+    /**
+     * Mapped note with the link serving it and its expiry, null if the link does not expire.
+     */
+    public record PublicNote(Long linkId, NoteResponse note, LocalDateTime expiresAt) {
+    }
+
+    // Expire à la fin du lien, au plus tard après le ttl
+    private record LinkExpiry(Duration ttl) implements Expiry<String, PublicNote> {
+        @Override
+        public long expireAfterCreate(String token, PublicNote note, long currentTime) {
+            if (note.expiresAt() == null) {
+                return ttl.toNanos();
+            }
+            Duration remaining = Duration.between(LocalDateTime.now(), note.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return remaining.compareTo(ttl) < 0 ? remaining.toNanos() : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, PublicNote note, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, note, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, PublicNote note, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
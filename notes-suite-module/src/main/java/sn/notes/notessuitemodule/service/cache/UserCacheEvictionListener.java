@@ -0,0 +1,20 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import sn.notes.notessuitemodule.domain.User;
+
+/**
+ * JPA listener on {@link User}, instantiated by Spring through Hibernate's bean container.
+ */
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+    private final UserIdentityCache userIdentityCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userIdentityCache.evict(user.getEmail());
+    }
+}
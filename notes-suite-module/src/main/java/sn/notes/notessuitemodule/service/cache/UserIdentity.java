@@ -0,0 +1,25 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import sn.notes.notessuitemodule.domain.User;
+
+/**
+ * Minimal, immutable view of a user (id and email) safe to keep outside a persistence context.
+ */
+public record UserIdentity(
+        Long id,
+        String email
+) {
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getEmail());
+    }
+
+    /**
+     * Detached user carrying only the id and email, usable as an association reference or for ownership checks.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .build();
+    }
+}
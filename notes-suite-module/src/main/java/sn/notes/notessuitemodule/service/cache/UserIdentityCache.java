@@ -0,0 +1,89 @@
+package sn.notes.notessuitemodule.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-level cache of user identities by email: a memo scoped to the current HTTP request,
+ * backed by a bounded cache shared between requests with a short TTL.
+ */
+@Component
+public class UserIdentityCache {
+    private static final String REQUEST_MEMO_ATTRIBUTE = UserIdentityCache.class.getName() + ".MEMO";
+
+    private final Cache<String, UserIdentity> identities;
+
+    public UserIdentityCache(MeterRegistry meterRegistry,
+                             @Value("${notes.cache.user-identity.ttl:5m}") Duration ttl,
+                             @Value("${notes.cache.user-identity.max-size:10000}") long maxSize) {
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "users.identity");
+    }
+
+    public Optional<UserIdentity> get(String email) {
+        Map<String, UserIdentity> memo = requestMemo();
+        UserIdentity identity = memo != null ? memo.get(email) : null;
+
+        if (identity == null) {
+            identity = identities.getIfPresent(email);
+            if (identity != null && memo != null) {
+                memo.put(email, identity);
+            }
+        }
+        return Optional.ofNullable(identity);
+    }
+
+    public void put(UserIdentity identity) {
+        identities.put(identity.email(), identity);
+        remember(identity);
+    }
+
+    /**
+     * Records an identity for the current request only, e.g. one taken from a verified token.
+     */
+    public void remember(UserIdentity identity) {
+        Map<String, UserIdentity> memo = requestMemo();
+        if (memo != null) {
+            memo.put(identity.email(), identity);
+        }
+    }
+
+    public void evict(String email) {
+        identities.invalidate(email);
+        Map<String, UserIdentity> memo = requestMemo();
+        if (memo != null) {
+            memo.remove(email);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, UserIdentity> requestMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<String, UserIdentity> memo = (Map<String, UserIdentity>)
+                attributes.getAttribute(REQUEST_MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>(4);
+            attributes.setAttribute(REQUEST_MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
@@ -0,0 +1,44 @@
+package sn.notes.notessuitemodule.service.criteria;
+
+import sn.notes.notessuitemodule.exception.BadRequestException;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last note of a page in the (updatedAt, id) order, exchanged with clients as an opaque string.
+ */
+public record NoteCursor(LocalDateTime updatedAt, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static NoteCursor of(NoteResponse note) {
+        return new NoteCursor(note.updatedAt(), note.id());
+    }
+
+    public String encode() {
+        String value = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a blank cursor, i.e. the first page.
+     */
+    public static NoteCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new NoteCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -11,13 +11,23 @@ import sn.notes.notessuitemodule.domain.enums.Visibility;
 @NoArgsConstructor
 @AllArgsConstructor
 public class NoteSearchCriteria {
+    public static final String RELEVANCE = "relevance";
+    public static final String MATCH_SUBSTRING = "substring";
+    public static final String MATCH_FUZZY = "fuzzy";
+
     private String query;
+    // Mode de recherche : plein texte par défaut, "substring" (fragment du titre ou d'un tag) ou "fuzzy" (avec fautes)
+    private String match;
     private Visibility visibility;
     private String tag;
     private Integer page;
     private Integer size;
     private String sortBy;
     private String sortDirection;
+    // Pagination par curseur (keyset) : null = pagination par offset, vide = première page
+    private String cursor;
+    // "full" pour inclure contentMd dans les listes, sinon seul l'extrait est renvoyé
+    private String view;
 
     public int getPageNumber() {
         return page != null && page >= 0 ? page : 0;
@@ -27,11 +37,44 @@ public class NoteSearchCriteria {
         return size != null && size > 0 && size <= 100 ? size : 10;
     }
 
+    /**
+     * Requested sort field; without one, search results are ranked by relevance and other lists by updatedAt.
+     */
     public String getSortField() {
-        return sortBy != null && !sortBy.isBlank() ? sortBy : "updatedAt";
+        if (sortBy == null || sortBy.isBlank() || RELEVANCE.equalsIgnoreCase(sortBy)) {
+            return hasQuery() ? RELEVANCE : "updatedAt";
+        }
+        return sortBy;
     }
 
     public String getSortOrder() {
         return sortDirection != null && sortDirection.equalsIgnoreCase("asc") ? "asc" : "desc";
     }
+
+    public boolean hasQuery() {
+        return query != null && !query.isBlank();
+    }
+
+    /**
+     * Whether the query is a fragment of the title or of a tag (trigram search) rather than full-text words.
+     */
+    public boolean isFragmentMatch() {
+        return MATCH_SUBSTRING.equalsIgnoreCase(match) || isFuzzyMatch();
+    }
+
+    public boolean isFuzzyMatch() {
+        return MATCH_FUZZY.equalsIgnoreCase(match);
+    }
+
+    public boolean isRelevanceSort() {
+        return RELEVANCE.equals(getSortField());
+    }
+
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+
+    public boolean isFullView() {
+        return "full".equalsIgnoreCase(view);
+    }
 }
@@ -0,0 +1,8 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of a note with what its access check needs, read without loading the note.
+ */
+public record NoteAccessVersion(Long id, Long ownerId, LocalDateTime updatedAt) {}
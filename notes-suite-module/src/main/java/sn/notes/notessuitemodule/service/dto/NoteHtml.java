@@ -0,0 +1,7 @@
+package sn.notes.notessuitemodule.service.dto;
+
+/**
+ * HTML page of a note and the version it was rendered from.
+ */
+public record NoteHtml(NoteVersion version, String html) {
+}
@@ -0,0 +1,32 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One line of the import progress stream: a committed chunk, the final summary or the error that stopped the import.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record NoteImportProgress(
+        Integer chunk,
+        Integer imported,
+        Integer skipped,
+        long totalImported,
+        long totalSkipped,
+        List<String> errors,
+        boolean completed
+) {
+    public static NoteImportProgress chunk(int chunk, int imported, int skipped,
+                                           long totalImported, long totalSkipped, List<String> errors) {
+        return new NoteImportProgress(chunk, imported, skipped, totalImported, totalSkipped, errors, false);
+    }
+
+    public static NoteImportProgress completed(long totalImported, long totalSkipped) {
+        return new NoteImportProgress(null, null, null, totalImported, totalSkipped, List.of(), true);
+    }
+
+    public static NoteImportProgress failed(int chunk, long totalImported, long totalSkipped, String error) {
+        return new NoteImportProgress(chunk, null, null, totalImported, totalSkipped, List.of(error), false);
+    }
+}
@@ -0,0 +1,28 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a note copied into the search index, read without loading the entity.
+ */
+public record NoteIndexRow(
+        Long id,
+        Long ownerId,
+        String title,
+        String contentMd,
+        String excerpt,
+        Visibility visibility,
+        LocalDateTime updatedAt
+) {
+    /**
+     * Row read with both content columns, the body being decompressed when stored compressed.
+     */
+    public NoteIndexRow(Long id, Long ownerId, String title, String contentMd, byte[] contentDeflated,
+                        String excerpt, Visibility visibility, LocalDateTime updatedAt) {
+        this(id, ownerId, title, contentDeflated != null ? NoteContentCodec.inflate(contentDeflated) : contentMd,
+                excerpt, visibility, updatedAt);
+    }
+}
@@ -1,5 +1,6 @@
 package sn.notes.notessuitemodule.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
 
 import java.time.LocalDateTime;
@@ -8,7 +9,11 @@ import java.util.List;
 public record NoteResponse(
         Long id,
         String title,
-        String contentMd,
+        // Absent des listes, sauf en vue complète
+        @JsonInclude(JsonInclude.Include.NON_NULL) String contentMd,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String excerpt,
+        // Passage du contenu correspondant à la recherche, termes entourés de <mark> (moteur Lucene)
+        @JsonInclude(JsonInclude.Include.NON_NULL) String highlight,
         Visibility visibility,
         String ownerEmail,
         List<String> tags,
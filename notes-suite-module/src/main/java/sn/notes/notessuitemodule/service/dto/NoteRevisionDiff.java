@@ -0,0 +1,12 @@
+package sn.notes.notessuitemodule.service.dto;
+
+/**
+ * Line diff between two revisions of a note, diff being in unified format.
+ */
+public record NoteRevisionDiff(
+        int fromRevision,
+        int toRevision,
+        int additions,
+        int deletions,
+        String diff
+) {}
@@ -0,0 +1,20 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revision of a note; contentMd is only set when a single revision is fetched.
+ */
+public record NoteRevisionResponse(
+        int revision,
+        String contentHash,
+        int contentLength,
+        LocalDateTime createdAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String contentMd
+) {
+    public NoteRevisionResponse(int revision, String contentHash, int contentLength, LocalDateTime createdAt) {
+        this(revision, contentHash, contentLength, createdAt, null);
+    }
+}
@@ -0,0 +1,5 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import java.time.LocalDateTime;
+
+public record NoteVersion(Long id, LocalDateTime updatedAt) {}
@@ -0,0 +1,22 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Edits of the content of a note, applied in order, each one against the text left by the previous one.
+ * baseUpdatedAt is the updatedAt of the version the client edited: the patch is rejected if the note changed since.
+ */
+public record PatchNoteContentRequest(
+        @NotNull(message = "Base version is required")
+        LocalDateTime baseUpdatedAt,
+
+        @NotEmpty(message = "At least one edit is required")
+        @Size(max = 1000, message = "A patch must not exceed 1000 edits")
+        List<@Valid @NotNull TextEdit> edits
+) {}
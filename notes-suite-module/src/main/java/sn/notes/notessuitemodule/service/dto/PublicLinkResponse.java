@@ -7,5 +7,7 @@ public record PublicLinkResponse(
         Long noteId,
         String urlToken,
         String publicUrl,
-        LocalDateTime expiresAt
+        LocalDateTime expiresAt,
+        // Vues enregistrées en base : les plus récentes y arrivent au flush suivant
+        long viewCount
 ) {}
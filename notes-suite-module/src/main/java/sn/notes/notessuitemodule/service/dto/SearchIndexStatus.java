@@ -0,0 +1,17 @@
+package sn.notes.notessuitemodule.service.dto;
+
+/**
+ * Comparison of the search index with the database: notes missing from the index, indexed with
+ * an older version, or still indexed after being deleted.
+ */
+public record SearchIndexStatus(
+        long databaseNotes,
+        long indexedNotes,
+        long missing,
+        long stale,
+        long orphaned
+) {
+    public boolean consistent() {
+        return missing == 0 && stale == 0 && orphaned == 0;
+    }
+}
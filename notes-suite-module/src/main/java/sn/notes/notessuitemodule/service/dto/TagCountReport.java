@@ -0,0 +1,16 @@
+package sn.notes.notessuitemodule.service.dto;
+
+/**
+ * Comparison of the stored tag counts with note_tags: users checked, users and counts that drifted,
+ * and counts rewritten (zero for a check).
+ */
+public record TagCountReport(
+        long users,
+        long usersWithDrift,
+        long driftedCounts,
+        long repairedCounts
+) {
+    public boolean consistent() {
+        return driftedCounts == 0;
+    }
+}
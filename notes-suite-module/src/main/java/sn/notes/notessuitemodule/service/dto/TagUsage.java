@@ -0,0 +1,9 @@
+package sn.notes.notessuitemodule.service.dto;
+
+/**
+ * A tag label and the number of notes of one user carrying it.
+ */
+public record TagUsage(
+        String label,
+        long count
+) {}
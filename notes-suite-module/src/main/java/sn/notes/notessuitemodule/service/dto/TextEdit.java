@@ -0,0 +1,25 @@
+package sn.notes.notessuitemodule.service.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Replaces deleteCount characters at offset by insert. Offsets and counts are in UTF-16 code units,
+ * like string indices in the Angular and Flutter clients.
+ */
+public record TextEdit(
+        @PositiveOrZero(message = "Offset must not be negative")
+        int offset,
+
+        @PositiveOrZero(message = "Delete count must not be negative")
+        int deleteCount,
+
+        @Size(max = 50000, message = "Inserted text must not exceed 50000 characters")
+        String insert
+) {
+    public TextEdit {
+        if (insert == null) {
+            insert = "";
+        }
+    }
+}
@@ -59,6 +59,12 @@ public class ApiResponse<T> {
         return response;
     }
 
+    public static <T> ApiResponse<T> conflict() {
+        ApiResponse<T> response = new ApiResponse<>();
+        response.setStatus(HttpStatus.CONFLICT.value());
+        return response;
+    }
+
     public static <T> ApiResponse<T> internalError() {
         ApiResponse<T> response = new ApiResponse<>();
         response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -0,0 +1,12 @@
+package sn.notes.notessuitemodule.service.dto.response;
+
+import java.util.List;
+
+/**
+ * A page read with a cursor: no total count, and the cursor of the next page, or null on the last one.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {}
@@ -1,19 +1,38 @@
 package sn.notes.notessuitemodule.service.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
 
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PageMetadata(
-        int size,
-        long totalElements,
-        int totalPages,
-        int number
+        Integer size,
+        Long totalElements,
+        Integer totalPages,
+        Integer number,
+        String nextCursor,
+        Map<String, Long> tagFacets
 ) {
     public static PageMetadata from(Page<?> page) {
         return new PageMetadata(
                 page.getSize(),
                 page.getTotalElements(),
                 page.getTotalPages(),
-                page.getNumber()
+                page.getNumber(),
+                null,
+                page instanceof SearchPage<?> searchPage ? searchPage.getTagFacets() : null
+        );
+    }
+
+    public static PageMetadata from(CursorPage<?> page) {
+        return new PageMetadata(
+                page.size(),
+                null,
+                null,
+                null,
+                page.nextCursor(),
+                null
         );
     }
-}
\ No newline at end of file
+}
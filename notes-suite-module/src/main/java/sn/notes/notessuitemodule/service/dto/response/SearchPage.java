@@ -0,0 +1,21 @@
+package sn.notes.notessuitemodule.service.dto.response;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page of search results carrying the number of matching notes per tag, over all the pages.
+ */
+@Getter
+public class SearchPage<T> extends PageImpl<T> {
+    private final Map<String, Long> tagFacets;
+
+    public SearchPage(List<T> content, Pageable pageable, long total, Map<String, Long> tagFacets) {
+        super(content, pageable, total);
+        this.tagFacets = tagFacets;
+    }
+}
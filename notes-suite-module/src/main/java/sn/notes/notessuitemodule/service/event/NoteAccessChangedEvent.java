@@ -0,0 +1,7 @@
+package sn.notes.notessuitemodule.service.event;
+
+/**
+ * Published inside the transaction that shared a note with a user or revoked that share.
+ */
+public record NoteAccessChangedEvent(Long noteId, Long userId) {
+}
@@ -0,0 +1,22 @@
+package sn.notes.notessuitemodule.service.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published inside the transaction that created, updated or deleted notes. It only carries ids:
+ * listeners that need the notes read them back once the transaction has committed.
+ */
+public record NoteChangedEvent(List<Long> noteIds, boolean deleted) {
+    public static NoteChangedEvent saved(Long noteId) {
+        return new NoteChangedEvent(List.of(noteId), false);
+    }
+
+    public static NoteChangedEvent saved(Collection<Long> noteIds) {
+        return new NoteChangedEvent(List.copyOf(noteIds), false);
+    }
+
+    public static NoteChangedEvent deleted(Long noteId) {
+        return new NoteChangedEvent(List.of(noteId), true);
+    }
+}
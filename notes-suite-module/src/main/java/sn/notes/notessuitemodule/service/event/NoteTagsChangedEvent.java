@@ -0,0 +1,23 @@
+package sn.notes.notessuitemodule.service.event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Published inside the transaction that attached tags to or detached tags from notes of one owner.
+ * Deltas count notes: +1 for each note that gained the label, -1 for each note that lost it.
+ */
+public record NoteTagsChangedEvent(Long ownerId, Map<String, Integer> deltas) {
+    public static NoteTagsChangedEvent of(Long ownerId, Collection<String> attached, Collection<String> detached) {
+        Map<String, Integer> deltas = new HashMap<>();
+        attached.forEach(label -> deltas.merge(label, 1, Integer::sum));
+        detached.forEach(label -> deltas.merge(label, -1, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return new NoteTagsChangedEvent(ownerId, Map.copyOf(deltas));
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+}
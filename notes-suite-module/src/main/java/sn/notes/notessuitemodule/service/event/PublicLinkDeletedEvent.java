@@ -0,0 +1,7 @@
+package sn.notes.notessuitemodule.service.event;
+
+/**
+ * Published inside the transaction that deleted a public link.
+ */
+public record PublicLinkDeletedEvent(String urlToken) {
+}
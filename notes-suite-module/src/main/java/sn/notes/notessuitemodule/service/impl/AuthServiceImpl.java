@@ -8,7 +8,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import sn.notes.notessuitemodule.domain.User;
 import sn.notes.notessuitemodule.exception.BadRequestException;
+import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.security.JwtTokenProvider;
 import sn.notes.notessuitemodule.service.dto.AuthResponse;
 import sn.notes.notessuitemodule.service.dto.LoginRequest;
@@ -35,9 +37,9 @@ public class AuthServiceImpl implements AuthService {
             throw new BadRequestException("Email already exists");
         }
 
-        userService.createUser(request.email(), passwordEncoder.encode(request.password()));
+        User user = userService.createUser(request.email(), passwordEncoder.encode(request.password()));
 
-        String accessToken = tokenProvider.generateAccessToken(request.email());
+        String accessToken = tokenProvider.generateAccessToken(user.getId(), user.getEmail());
         String refreshToken = tokenProvider.generateRefreshToken(request.email());
 
         log.info("User registered successfully: {}", request.email());
@@ -74,11 +76,14 @@ public class AuthServiceImpl implements AuthService {
 
         String email = tokenProvider.getEmailFromToken(request.refreshToken());
 
-        if (!userService.existsByEmail(email)) {
+        User user;
+        try {
+            user = userService.findByEmail(email);
+        } catch (ResourceNotFoundException e) {
             throw new BadRequestException("User not found");
         }
 
-        String newAccessToken = tokenProvider.generateAccessToken(email);
+        String newAccessToken = tokenProvider.generateAccessToken(user.getId(), email);
         String newRefreshToken = tokenProvider.generateRefreshToken(email);
 
         log.info("Token refreshed successfully for user: {}", email);
@@ -0,0 +1,143 @@
+package sn.notes.notessuitemodule.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.interfaces.NoteExportService;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes all the notes of a user while reading them from a database cursor, one batch at a time,
+ * so that neither the heap nor the persistence context grows with the size of the library.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NoteExportServiceImpl implements NoteExportService {
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_FILE_NAME_LENGTH = 120;
+
+    private final NoteRepository noteRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportNdjson(String userEmail, OutputStream output) throws IOException {
+        log.info("Exporting notes as NDJSON for user: {}", userEmail);
+
+        long exported = exportBatches(userEmail, notes -> {
+            for (NoteResponse note : notes) {
+                output.write(objectMapper.writeValueAsBytes(note));
+                output.write('\n');
+            }
+            output.flush();
+        });
+
+        log.info("Exported {} notes for user: {}", exported, userEmail);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMarkdownZip(String userEmail, OutputStream output) throws IOException {
+        log.info("Exporting notes as Markdown zip for user: {}", userEmail);
+
+        ZipOutputStream zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+
+        long exported = exportBatches(userEmail, notes -> {
+            for (NoteResponse note : notes) {
+                zip.putNextEntry(new ZipEntry(entryName(note)));
+                if (note.contentMd() != null) {
+                    zip.write(note.contentMd().getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+            zip.flush();
+        });
+        zip.finish();
+
+        log.info("Exported {} notes for user: {}", exported, userEmail);
+    }
+
+    private long exportBatches(String userEmail, BatchWriter writer) throws IOException {
+        User owner = userService.findByEmail(userEmail);
+        List<Note> batch = new ArrayList<>(BATCH_SIZE);
+        long exported = 0;
+
+        try (Stream<Note> notes = noteRepository.streamAllByOwnerId(owner.getId())) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    writer.write(toResponses(batch, owner.getEmail()));
+                    exported += batch.size();
+                    batch.clear();
+                    // Détacher les notes déjà écrites
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
+    }
+
+    private List<NoteResponse> toResponses(List<Note> notes, String ownerEmail) {
+        Map<Long, List<String>> labels = noteRepository.findTagLabelsByNoteIds(
+                notes.stream().map(Note::getId).toList());
+
+        return notes.stream()
+                .map(note -> new NoteResponse(
+                        note.getId(),
+                        note.getTitle(),
+                        note.getContentMd(),
+                        null,
+                        null,
+                        note.getVisibility(),
+                        ownerEmail,
+                        labels.getOrDefault(note.getId(), List.of()),
+                        null,
+                        note.getUpdatedAt()))
+                .toList();
+    }
+
+    /**
+     * Tags become folders and the title, followed by the id, becomes the file name, the layout read back by the
+     * Markdown zip import, which drops the id suffix. The id keeps names unique without remembering those already
+     * written.
+     */
+    private static String entryName(NoteResponse note) {
+        StringBuilder folders = new StringBuilder();
+        for (String tag : note.tags()) {
+            folders.append(toFileName(tag)).append('/');
+        }
+        return folders + toFileName(note.title()) + " (" + note.id() + ").md";
+    }
+
+    private static String toFileName(String value) {
+        String fileName = value.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").strip();
+        if (fileName.isEmpty() || fileName.startsWith(".")) {
+            fileName = "_" + fileName;
+        }
+        return fileName.length() > MAX_FILE_NAME_LENGTH ? fileName.substring(0, MAX_FILE_NAME_LENGTH) : fileName;
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(List<NoteResponse> notes) throws IOException;
+    }
+}
@@ -0,0 +1,338 @@
+package sn.notes.notessuitemodule.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.repository.TagBatchRepository;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
+import sn.notes.notessuitemodule.service.dto.NoteImportProgress;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.NoteTagsChangedEvent;
+import sn.notes.notessuitemodule.service.interfaces.NoteImportService;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Imports notes from a stream, one row at a time: rows are validated like {@link CreateNoteRequest}
+ * and written in chunks, each chunk in its own transaction, so that memory use does not depend on the upload size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NoteImportServiceImpl implements NoteImportService {
+    private static final int MAX_ERRORS_PER_CHUNK = 20;
+    private static final int MAX_LINE_LENGTH = 1_048_576;
+    private static final int MAX_ENTRY_BYTES = 1_048_576;
+    private static final int MAX_TAG_DICTIONARY_SIZE = 10_000;
+
+    private final NoteRepository noteRepository;
+    private final TagBatchRepository tagBatchRepository;
+    private final TagCountRepository tagCountRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notes.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void importNdjson(InputStream input, String userEmail, Consumer<NoteImportProgress> progress) throws IOException {
+        log.info("Importing NDJSON notes for user: {}", userEmail);
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        importRows(new NdjsonSource(reader), userEmail, progress);
+    }
+
+    @Override
+    public void importMarkdownZip(InputStream input, String userEmail, Consumer<NoteImportProgress> progress) throws IOException {
+        log.info("Importing Markdown zip notes for user: {}", userEmail);
+        importRows(new MarkdownZipSource(new ZipInputStream(input, StandardCharsets.UTF_8)), userEmail, progress);
+    }
+
+    private void importRows(NoteSource source, String userEmail, Consumer<NoteImportProgress> progress) throws IOException {
+        ImportRun run = new ImportRun(userService.findByEmail(userEmail), progress);
+
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            if (!run.add(row)) {
+                return;
+            }
+        }
+
+        if (run.flushChunk()) {
+            log.info("Import finished for user: {} ({} imported, {} skipped)", userEmail, run.totalImported, run.totalSkipped);
+            progress.accept(NoteImportProgress.completed(run.totalImported, run.totalSkipped));
+        }
+    }
+
+    /**
+     * Writes one chunk: notes through Hibernate batched inserts, tags and note_tags through set-based JDBC.
+     * Returns the tags created by this chunk, to be added to the dictionary once the chunk is committed.
+     */
+    private Map<String, Long> writeChunk(User owner, List<CreateNoteRequest> requests, Map<String, Long> tagDictionary) {
+        List<Note> notes = requests.stream()
+                .map(request -> Note.builder()
+                        .title(request.title())
+                        .contentMd(request.contentMd())
+                        .visibility(Visibility.PRIVATE)
+                        .owner(owner)
+                        .build())
+                .toList();
+
+        noteRepository.saveAll(notes);
+        // Les inserts JDBC doivent voir les lignes des notes
+        noteRepository.flush();
+        eventPublisher.publishEvent(NoteChangedEvent.saved(notes.stream().map(Note::getId).toList()));
+
+        Set<String> unknownLabels = requests.stream()
+                .flatMap(request -> labelsOf(request).stream())
+                .filter(label -> !tagDictionary.containsKey(label))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Long> createdTags = unknownLabels.isEmpty()
+                ? Map.of()
+                : tagBatchRepository.upsertLabels(unknownLabels);
+
+        Map<Long, List<Long>> tagIdsByNoteId = new LinkedHashMap<>();
+        for (int i = 0; i < notes.size(); i++) {
+            List<Long> tagIds = labelsOf(requests.get(i)).stream()
+                    .map(label -> tagDictionary.getOrDefault(label, createdTags.get(label)))
+                    .toList();
+            if (!tagIds.isEmpty()) {
+                tagIdsByNoteId.put(notes.get(i).getId(), tagIds);
+            }
+        }
+        tagBatchRepository.insertNoteTags(tagIdsByNoteId);
+
+        NoteTagsChangedEvent tagsChanged = NoteTagsChangedEvent.of(owner.getId(),
+                requests.stream().flatMap(request -> labelsOf(request).stream()).toList(),
+                List.of());
+        tagCountRepository.applyDeltas(owner.getId(), tagsChanged.deltas());
+        eventPublisher.publishEvent(tagsChanged);
+
+        // Ne pas accumuler les notes importées dans le contexte de persistance
+        entityManager.clear();
+        return createdTags;
+    }
+
+    private String validate(CreateNoteRequest request) {
+        Set<ConstraintViolation<CreateNoteRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Set<String> labelsOf(CreateNoteRequest request) {
+        return request.tags().stream()
+                .filter(label -> label != null && !label.isBlank())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * State of one import: the pending chunk, the running totals and the tag dictionary shared by all chunks.
+     */
+    private final class ImportRun {
+        private final User owner;
+        private final Consumer<NoteImportProgress> progress;
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        private final Map<String, Long> tagDictionary = new HashMap<>();
+        private final List<CreateNoteRequest> pending = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int skipped;
+        private int chunkNumber;
+        private long totalImported;
+        private long totalSkipped;
+
+        private ImportRun(User owner, Consumer<NoteImportProgress> progress) {
+            this.owner = owner;
+            this.progress = progress;
+        }
+
+        /**
+         * Adds a row to the pending chunk and writes the chunk once full. Returns false if the import must stop.
+         */
+        private boolean add(ImportRow row) {
+            String error = row.error() != null ? row.error() : validate(row.request());
+            if (error != null) {
+                skipped++;
+                if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+                    errors.add(row.position() + ": " + error);
+                }
+            } else {
+                pending.add(row.request());
+            }
+
+            return pending.size() + skipped < chunkSize || flushChunk();
+        }
+
+        private boolean flushChunk() {
+            if (pending.isEmpty() && skipped == 0) {
+                return true;
+            }
+            chunkNumber++;
+
+            try {
+                if (!pending.isEmpty()) {
+                    Map<String, Long> createdTags = transactionTemplate.execute(status ->
+                            writeChunk(owner, pending, tagDictionary));
+                    if (tagDictionary.size() + createdTags.size() > MAX_TAG_DICTIONARY_SIZE) {
+                        tagDictionary.clear();
+                    }
+                    tagDictionary.putAll(createdTags);
+                }
+            } catch (RuntimeException e) {
+                log.error("Import chunk {} failed for user: {}", chunkNumber, owner.getEmail(), e);
+                progress.accept(NoteImportProgress.failed(chunkNumber, totalImported, totalSkipped,
+                        "Chunk " + chunkNumber + " could not be saved"));
+                return false;
+            }
+
+            totalImported += pending.size();
+            totalSkipped += skipped;
+            progress.accept(NoteImportProgress.chunk(chunkNumber, pending.size(), skipped,
+                    totalImported, totalSkipped, List.copyOf(errors)));
+
+            pending.clear();
+            errors.clear();
+            skipped = 0;
+            return true;
+        }
+    }
+
+    private record ImportRow(String position, CreateNoteRequest request, String error) {
+        static ImportRow valid(String position, CreateNoteRequest request) {
+            return new ImportRow(position, request, null);
+        }
+
+        static ImportRow invalid(String position, String error) {
+            return new ImportRow(position, null, error);
+        }
+    }
+
+    private interface NoteSource {
+        /**
+         * Returns the next row of the upload, or null once it is fully read.
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * One {@link CreateNoteRequest} per line; blank lines are ignored.
+     */
+    private final class NdjsonSource implements NoteSource {
+        private final Reader reader;
+        private final StringBuilder line = new StringBuilder();
+        private long lineNumber;
+        private boolean endOfInput;
+
+        private NdjsonSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            while (!endOfInput) {
+                boolean tooLong = readLine();
+                lineNumber++;
+                String position = "Line " + lineNumber;
+
+                if (tooLong) {
+                    return ImportRow.invalid(position, "Line exceeds " + MAX_LINE_LENGTH + " characters");
+                }
+                if (line.toString().isBlank()) {
+                    continue;
+                }
+
+                try {
+                    return ImportRow.valid(position, objectMapper.readValue(line.toString(), CreateNoteRequest.class));
+                } catch (JsonProcessingException e) {
+                    return ImportRow.invalid(position, "Invalid JSON");
+                }
+            }
+            return null;
+        }
+
+        // Lit une ligne en s'arrêtant à MAX_LINE_LENGTH caractères ; le reste de la ligne est ignoré
+        private boolean readLine() throws IOException {
+            line.setLength(0);
+            boolean tooLong = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (line.length() < MAX_LINE_LENGTH) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            endOfInput = c == -1;
+            return tooLong;
+        }
+    }
+
+    /**
+     * One note per .md entry: the file name is the title and the enclosing folders are the tags. The " (id)" suffix
+     * that the Markdown zip export adds to keep names unique is not part of the title.
+     */
+    private static final class MarkdownZipSource implements NoteSource {
+        private static final Pattern EXPORTED_ID_SUFFIX = Pattern.compile(" \\(\\d+\\)$");
+
+        private final ZipInputStream zip;
+
+        private MarkdownZipSource(ZipInputStream zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.toLowerCase(Locale.ROOT).endsWith(".md")
+                        || name.startsWith("__MACOSX/")) {
+                    continue;
+                }
+
+                byte[] content = zip.readNBytes(MAX_ENTRY_BYTES + 1);
+                if (content.length > MAX_ENTRY_BYTES) {
+                    return ImportRow.invalid(name, "File exceeds " + MAX_ENTRY_BYTES + " bytes");
+                }
+
+                String[] segments = name.split("/");
+                String fileName = segments[segments.length - 1];
+                String title = EXPORTED_ID_SUFFIX.matcher(fileName.substring(0, fileName.length() - ".md".length()))
+                        .replaceFirst("");
+                List<String> tags = Arrays.asList(segments).subList(0, segments.length - 1);
+
+                return ImportRow.valid(name, new CreateNoteRequest(title, new String(content, StandardCharsets.UTF_8), tags));
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package sn.notes.notessuitemodule.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.notes.notessuitemodule.domain.NoteRevision;
+import sn.notes.notessuitemodule.domain.support.TextDiff;
+import sn.notes.notessuitemodule.repository.NoteRevisionRepository;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionDiff;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionResponse;
+import sn.notes.notessuitemodule.service.interfaces.NoteRevisionService;
+import sn.notes.notessuitemodule.service.interfaces.NoteService;
+import sn.notes.notessuitemodule.service.revision.NoteRevisionStore;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NoteRevisionServiceImpl implements NoteRevisionService {
+    private final NoteService noteService;
+    private final NoteRevisionStore noteRevisionStore;
+    private final NoteRevisionRepository noteRevisionRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<NoteRevisionResponse> getRevisions(Long noteId, Integer page, Integer size, String userEmail) {
+        log.info("Getting revisions of note with ID: {} for user: {}", noteId, userEmail);
+
+        // Mêmes droits que la lecture de la note
+        noteService.getNoteVersion(noteId, userEmail);
+
+        int pageSize = size != null && size > 0 && size <= 100 ? size : 20;
+        int pageNumber = page != null && page >= 0 ? page : 0;
+        return noteRevisionRepository.findResponsesByNoteId(noteId,
+                PageRequest.of(pageNumber, pageSize, Sort.by(Sort.Direction.DESC, "revision")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteRevisionResponse getRevision(Long noteId, int revision, String userEmail) {
+        log.info("Getting revision {} of note with ID: {} for user: {}", revision, noteId, userEmail);
+
+        noteService.getNoteVersion(noteId, userEmail);
+
+        NoteRevision noteRevision = noteRevisionStore.findRevision(noteId, revision);
+        return new NoteRevisionResponse(
+                noteRevision.getRevision(),
+                noteRevision.getContentHash(),
+                noteRevision.getContentLength(),
+                noteRevision.getCreatedAt(),
+                noteRevisionStore.contentOf(noteId, revision));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteRevisionDiff diffRevisions(Long noteId, int fromRevision, int toRevision, String userEmail) {
+        log.info("Diffing revisions {} and {} of note with ID: {} for user: {}", fromRevision, toRevision, noteId, userEmail);
+
+        noteService.getNoteVersion(noteId, userEmail);
+
+        TextDiff diff = TextDiff.between(
+                noteRevisionStore.contentOf(noteId, fromRevision),
+                noteRevisionStore.contentOf(noteId, toRevision));
+        return new NoteRevisionDiff(fromRevision, toRevision, diff.additions(), diff.deletions(), diff.unified());
+    }
+}
@@ -1,10 +1,9 @@
 package sn.notes.notessuitemodule.service.impl;
 
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,35 +13,60 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.notes.notessuitemodule.domain.*;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.exception.BadRequestException;
+import sn.notes.notessuitemodule.exception.ConflictException;
 import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.exception.UnauthorizedException;
 import sn.notes.notessuitemodule.repository.NoteRepository;
 import sn.notes.notessuitemodule.repository.NoteTagRepository;
 import sn.notes.notessuitemodule.repository.ShareRepository;
-import sn.notes.notessuitemodule.repository.TagRepository;
+import sn.notes.notessuitemodule.repository.TagBatchRepository;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.service.cache.NoteAccessCache;
+import sn.notes.notessuitemodule.service.criteria.NoteCursor;
 import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
 import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
+import sn.notes.notessuitemodule.service.dto.NoteAccessVersion;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.PatchNoteContentRequest;
+import sn.notes.notessuitemodule.service.dto.TextEdit;
 import sn.notes.notessuitemodule.service.dto.UpdateNoteRequest;
+import sn.notes.notessuitemodule.service.dto.response.CursorPage;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.NoteTagsChangedEvent;
+import sn.notes.notessuitemodule.service.interfaces.NoteSearchEngine;
 import sn.notes.notessuitemodule.service.interfaces.NoteService;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 import sn.notes.notessuitemodule.service.mapper.NoteMapper;
+import sn.notes.notessuitemodule.service.revision.NoteRevisionStore;
 import sn.notes.notessuitemodule.service.specification.NoteSpecifications;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NoteServiceImpl implements NoteService {
+    // Même limite que la validation de contentMd dans CreateNoteRequest et UpdateNoteRequest
+    private static final int MAX_CONTENT_LENGTH = 50000;
+
     private final NoteRepository noteRepository;
     private final UserService userService;
-    private final TagRepository tagRepository;
     private final NoteTagRepository noteTagRepository;
+    private final TagBatchRepository tagBatchRepository;
+    private final TagCountRepository tagCountRepository;
     private final ShareRepository shareRepository;
+    private final NoteAccessCache noteAccessCache;
+    private final DatabasePlatform databasePlatform;
+    private final NoteRevisionStore noteRevisionStore;
     private final NoteMapper noteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    // Moteur de recherche embarqué, absent sauf si notes.search.engine=lucene
+    private final ObjectProvider<NoteSearchEngine> noteSearchEngine;
 
     @Override
     @Transactional
@@ -62,8 +86,14 @@ public class NoteServiceImpl implements NoteService {
 
         // Gérer les tags
         if (request.tags() != null && !request.tags().isEmpty()) {
-            attachTagsToNote(note, request.tags());
+            Set<String> attached = attachTagsToNote(note, request.tags());
+            recordTagChanges(owner, attached, List.of());
         }
+        // updatedAt n'est écrit qu'au flush : la réponse le renvoie comme base des patchs de contenu
+        noteRepository.flush();
+        noteRevisionStore.record(note, null);
+
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
 
         log.info("Note created with ID: {}", note.getId());
         return noteMapper.toResponse(note);
@@ -73,15 +103,17 @@ public class NoteServiceImpl implements NoteService {
     @Transactional(readOnly = true)
     public Page<NoteResponse> searchNotes(NoteSearchCriteria criteria, String userEmail) {
         log.info("Searching notes for user: {} with criteria: {}", userEmail, criteria);
+        applyAvailableMatch(criteria);
 
         User owner = userService.findByEmail(userEmail);
 
-        Specification<Note> spec = NoteSpecifications.searchWithFilters(
-                owner,
-                criteria.getQuery(),
-                criteria.getVisibility(),
-                criteria.getTag()
-        );
+        // Les recherches par fragment restent sur les index trigrammes de la base
+        NoteSearchEngine searchEngine = noteSearchEngine.getIfAvailable();
+        if (searchEngine != null && criteria.hasQuery() && !criteria.isFragmentMatch()) {
+            return searchEngine.search(owner, criteria);
+        }
+
+        Specification<Note> spec = NoteSpecifications.searchWithFilters(owner, criteria);
 
         Sort sort = Sort.by(
                 criteria.getSortOrder().equalsIgnoreCase("asc")
@@ -90,15 +122,19 @@ public class NoteServiceImpl implements NoteService {
                 criteria.getSortField()
         );
 
+        // Tri par pertinence : l'ordre est porté par la specification
+        if (criteria.isRelevanceSort()) {
+            spec = spec.and(relevanceOrder(criteria));
+            sort = Sort.unsorted();
+        }
+
         Pageable pageable = PageRequest.of(
                 criteria.getPageNumber(),
                 criteria.getPageSize(),
                 sort
         );
 
-        Page<Note> notesPage = noteRepository.findAll(spec, pageable);
-
-        return notesPage.map(noteMapper::toResponse);
+        return noteRepository.findListing(spec, pageable, criteria.isFullView());
     }
 
     @Override
@@ -109,17 +145,33 @@ public class NoteServiceImpl implements NoteService {
         Note note = findNoteById(id);
         User user = userService.findByEmail(userEmail);
 
-        validateNoteAccess(note, user);
+        validateNoteAccess(note.getId(), note.getOwner().getId(), user);
 
         return noteMapper.toResponse(note);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public NoteVersion getNoteVersion(Long id, String userEmail) {
+        log.debug("Getting version of note with ID: {} for user: {}", id, userEmail);
+
+        NoteAccessVersion version = noteRepository.findAccessVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + id));
+        User user = userService.findByEmail(userEmail);
+
+        validateNoteAccess(version.id(), version.ownerId(), user);
+
+        return new NoteVersion(version.id(), version.updatedAt());
+    }
+
     @Override
     @Transactional
     public NoteResponse updateNote(Long id, UpdateNoteRequest request, String userEmail) {
         log.info("Updating note with ID: {} for user: {}", id, userEmail);
 
-        Note note = findNoteById(id);
+        // Verrou sur la ligne : les révisions de la note sont numérotées dans l'ordre des écritures
+        Note note = noteRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + id));
         User user = userService.findByEmail(userEmail);
 
         validateNoteOwnership(note, user);
@@ -128,7 +180,9 @@ public class NoteServiceImpl implements NoteService {
             note.setTitle(request.title());
         }
 
+        String previousContent = null;
         if (request.contentMd() != null) {
+            previousContent = Objects.toString(note.getContentMd(), "");
             note.setContentMd(request.contentMd());
         }
 
@@ -138,21 +192,60 @@ public class NoteServiceImpl implements NoteService {
 
         if (request.tags() != null) {
             List<NoteTag> oldNoteTags = noteTagRepository.findByNote(note);
+            List<String> detached = tagLabelsOf(note);
 
             // Supprimer en batch
             if (!oldNoteTags.isEmpty()) {
                 noteTagRepository.deleteAllInBatch(oldNoteTags);
             }
             // Ajouter les nouveaux tags
-            attachTagsToNote(note, request.tags());
+            Set<String> attached = attachTagsToNote(note, request.tags());
+            recordTagChanges(user, attached, detached);
+            // Les tags sont écrits en JDBC : changer updatedAt pour que la version (et l'ETag) de la note change
+            // Comparaison en ensembles : l'ordre de la requête et celui de la base ne comptent pas
+            if (!new HashSet<>(detached).equals(attached)) {
+                note.setUpdatedAt(LocalDateTime.now());
+            }
         }
 
-        note = noteRepository.save(note);
+        // Flush pour renvoyer le nouvel updatedAt, base des patchs de contenu
+        note = noteRepository.saveAndFlush(note);
+        if (previousContent != null) {
+            noteRevisionStore.record(note, previousContent);
+        }
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
 
         log.info("Note updated successfully: {}", id);
         return noteMapper.toResponse(note);
     }
 
+    @Override
+    @Transactional
+    public NoteVersion patchNoteContent(Long id, PatchNoteContentRequest request, String userEmail) {
+        log.info("Patching content of note with ID: {} for user: {} ({} edits)", id, userEmail, request.edits().size());
+
+        Note note = noteRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + id));
+        User user = userService.findByEmail(userEmail);
+
+        validateNoteOwnership(note, user);
+
+        // La ligne est verrouillée : la version lue ne peut plus changer avant le commit
+        if (!note.getUpdatedAt().equals(request.baseUpdatedAt())) {
+            throw new ConflictException("Note " + id + " has changed since version " + request.baseUpdatedAt());
+        }
+
+        String previousContent = Objects.toString(note.getContentMd(), "");
+        note.setContentMd(applyEdits(previousContent, request.edits()));
+        // Flush pour lire le nouvel updatedAt, base du patch suivant
+        note = noteRepository.saveAndFlush(note);
+        noteRevisionStore.record(note, previousContent);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
+
+        log.info("Note content patched successfully: {}", id);
+        return new NoteVersion(note.getId(), note.getUpdatedAt());
+    }
+
     @Override
     @Transactional
     public void deleteNote(Long id, String userEmail) {
@@ -163,75 +256,113 @@ public class NoteServiceImpl implements NoteService {
 
         validateNoteOwnership(note, user);
 
+        List<String> detached = tagLabelsOf(note);
         noteRepository.delete(note);
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(id));
+        recordTagChanges(user, List.of(), detached);
 
         log.info("Note deleted successfully: {}", id);
     }
 
+    @Override
     @Transactional(readOnly = true)
-    public Page<NoteResponse> getSharedNotes(NoteSearchCriteria criteria, String userEmail) {
-        log.info("Getting notes shared with user: {} with criteria: {}", userEmail, criteria);
-
-        User user = userService.findByEmail(userEmail);
+    public CursorPage<NoteResponse> searchNotesByCursor(NoteSearchCriteria criteria, String userEmail) {
+        log.info("Searching notes by cursor for user: {} with criteria: {}", userEmail, criteria);
+        applyAvailableMatch(criteria);
 
-        // Récupérer les shares de l'utilisateur
-        List<Share> shares = shareRepository.findBySharedWithUser(user);
-        List<Long> sharedNoteIds = shares.stream()
-                .map(share -> share.getNote().getId())
-                .collect(Collectors.toList());
-
-        if (sharedNoteIds.isEmpty()) {
-            return Page.empty();
-        }
+        User owner = userService.findByEmail(userEmail);
 
-        // Créer une specification pour les notes partagées avec filtres
-        Specification<Note> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<Note> spec = NoteSpecifications.searchWithFilters(owner, criteria);
 
-            // 1. Filter by shared note IDs
-            predicates.add(root.get("id").in(sharedNoteIds));
+        return findByCursor(spec, criteria);
+    }
 
-            // 2. Filter by query (search in title)
-            if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
-                String searchPattern = "%" + criteria.getQuery().toLowerCase() + "%";
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("title")),
-                        searchPattern
-                ));
-            }
+    @Transactional(readOnly = true)
+    public Page<NoteResponse> getSharedNotes(NoteSearchCriteria criteria, String userEmail) {
+        log.info("Getting notes shared with user: {} with criteria: {}", userEmail, criteria);
+        applyAvailableMatch(criteria);
 
-            // 3. Filter by tag
-            if (criteria.getTag() != null && !criteria.getTag().isBlank()) {
-                Join<Note, NoteTag> noteTagJoin = root.join("noteTags", JoinType.INNER);
-                Join<NoteTag, Tag> tagJoin = noteTagJoin.join("tag", JoinType.INNER);
-                predicates.add(criteriaBuilder.equal(
-                        criteriaBuilder.lower(tagJoin.get("label")),
-                        criteria.getTag().toLowerCase()
-                ));
-            }
+        User user = userService.findByEmail(userEmail);
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        Specification<Note> spec = NoteSpecifications.sharedWithFilters(user, criteria);
 
         // Sorting
         Sort.Direction direction = "asc".equalsIgnoreCase(criteria.getSortDirection())
                 ? Sort.Direction.ASC
                 : Sort.Direction.DESC;
 
-        String sortBy = criteria.getSortBy() != null ? criteria.getSortBy() : "updatedAt";
+        Sort sort = Sort.by(direction, criteria.getSortField());
+
+        if (criteria.isRelevanceSort()) {
+            spec = spec.and(relevanceOrder(criteria));
+            sort = Sort.unsorted();
+        }
 
         Pageable pageable = PageRequest.of(
                 criteria.getPageNumber(),
                 criteria.getPageSize(),
-                Sort.by(direction, sortBy)
+                sort
         );
 
-        Page<Note> notesPage = noteRepository.findAll(spec, pageable);
-        return notesPage.map(noteMapper::toResponse);
+        return noteRepository.findListing(spec, pageable, criteria.isFullView());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<NoteResponse> getSharedNotesByCursor(NoteSearchCriteria criteria, String userEmail) {
+        log.info("Getting notes shared with user: {} by cursor with criteria: {}", userEmail, criteria);
+        applyAvailableMatch(criteria);
+
+        User user = userService.findByEmail(userEmail);
+
+        Specification<Note> spec = NoteSpecifications.sharedWithFilters(user, criteria);
+
+        return findByCursor(spec, criteria);
     }
 
     // Méthodes utilitaires privées
 
+    /**
+     * Without pg_trgm, fragment searches keep their case-insensitive substring predicate but lose typo tolerance
+     * and similarity ranking: fuzzy becomes substring and the most recently updated notes come first.
+     */
+    private void applyAvailableMatch(NoteSearchCriteria criteria) {
+        if (!criteria.isFragmentMatch() || databasePlatform.hasTrigramSearch()) {
+            return;
+        }
+        criteria.setMatch(NoteSearchCriteria.MATCH_SUBSTRING);
+        if (criteria.isRelevanceSort()) {
+            criteria.setSortBy("updatedAt");
+        }
+    }
+
+    private static Specification<Note> relevanceOrder(NoteSearchCriteria criteria) {
+        return criteria.isFragmentMatch()
+                ? NoteSpecifications.orderBySimilarity(criteria.getQuery())
+                : NoteSpecifications.orderByRelevance(criteria.getQuery());
+    }
+
+    /**
+     * Reads one page in the (updatedAt, id) order, starting after the criteria cursor. Fetches one extra row
+     * to know whether there is a next page instead of counting the matches.
+     */
+    private CursorPage<NoteResponse> findByCursor(Specification<Note> spec, NoteSearchCriteria criteria) {
+        boolean ascending = "asc".equals(criteria.getSortOrder());
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, "updatedAt").and(Sort.by(direction, "id"));
+        int size = criteria.getPageSize();
+
+        Specification<Note> seekSpec = spec.and(
+                NoteSpecifications.seekAfter(NoteCursor.decode(criteria.getCursor()), ascending));
+        List<NoteResponse> notes = noteRepository.findListing(seekSpec, sort, size + 1, criteria.isFullView());
+
+        boolean hasNext = notes.size() > size;
+        List<NoteResponse> pageNotes = hasNext ? notes.subList(0, size) : notes;
+        String nextCursor = hasNext ? NoteCursor.of(pageNotes.get(size - 1)).encode() : null;
+
+        return new CursorPage<>(pageNotes, size, nextCursor);
+    }
+
     private Note findNoteById(Long id) {
         return noteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + id));
@@ -243,14 +374,15 @@ public class NoteServiceImpl implements NoteService {
         }
     }
 
-    private void validateNoteAccess(Note note, User user) {
+    private void validateNoteAccess(Long noteId, Long ownerId, User user) {
         // L'utilisateur peut accéder à la note s'il en est le propriétaire
-        if (note.getOwner().getId().equals(user.getId())) {
+        if (ownerId.equals(user.getId())) {
             return;
         }
 
         // Ou si la note a été partagée avec lui
-        boolean hasSharedAccess = shareRepository.existsByNoteAndSharedWithUser(note, user);
+        boolean hasSharedAccess = noteAccessCache.isSharedWith(noteId, user.getId(),
+                () -> shareRepository.existsByNoteAndSharedWithUser(noteRepository.getReferenceById(noteId), user));
 
         if (hasSharedAccess) {
             return;
@@ -259,20 +391,60 @@ public class NoteServiceImpl implements NoteService {
         throw new UnauthorizedException("You don't have permission to access this note");
     }
 
-    private void attachTagsToNote(Note note, List<String> tagLabels) {
-        for (String label : tagLabels) {
-            Tag tag = tagRepository.findByLabel(label)
-                    .orElseGet(() -> {
-                        Tag newTag = Tag.builder().label(label).build();
-                        return tagRepository.save(newTag);
-                    });
+    /**
+     * Attaches the labels to the note, creating the missing tags, and returns the labels attached.
+     */
+    private Set<String> attachTagsToNote(Note note, List<String> tagLabels) {
+        Set<String> labels = tagLabels.stream()
+                .filter(label -> label != null && !label.isBlank())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (labels.isEmpty()) {
+            return labels;
+        }
 
-            NoteTag noteTag = NoteTag.builder()
-                    .note(note)
-                    .tag(tag)
-                    .build();
+        // Les inserts JDBC doivent voir la ligne de la note
+        noteRepository.flush();
 
-            noteTagRepository.save(noteTag);
+        Map<String, Long> tagIds = tagBatchRepository.upsertLabels(labels);
+        List<Long> noteTagIds = labels.stream()
+                .map(tagIds::get)
+                .toList();
+
+        tagBatchRepository.insertNoteTags(Map.of(note.getId(), noteTagIds));
+        return labels;
+    }
+
+    /**
+     * Updates the tag counts of the owner in the current transaction, then notifies the in-memory index.
+     */
+    private void recordTagChanges(User owner, Collection<String> attached, Collection<String> detached) {
+        NoteTagsChangedEvent event = NoteTagsChangedEvent.of(owner.getId(), attached, detached);
+        if (event.isEmpty()) {
+            return;
+        }
+
+        tagCountRepository.applyDeltas(owner.getId(), event.deltas());
+        eventPublisher.publishEvent(event);
+    }
+
+    private static String applyEdits(String content, List<TextEdit> edits) {
+        StringBuilder text = new StringBuilder(content != null ? content : "");
+        for (TextEdit edit : edits) {
+            if (edit.offset() > text.length() || edit.deleteCount() > text.length() - edit.offset()) {
+                throw new BadRequestException("Edit at offset " + edit.offset() + " deleting " + edit.deleteCount()
+                        + " characters is outside the content (" + text.length() + " characters)");
+            }
+            text.replace(edit.offset(), edit.offset() + edit.deleteCount(), edit.insert());
+            if (text.length() > MAX_CONTENT_LENGTH) {
+                throw new BadRequestException("Content must not exceed " + MAX_CONTENT_LENGTH + " characters");
+            }
         }
+        return text.toString();
+    }
+
+    private List<String> tagLabelsOf(Note note) {
+        return noteRepository.findTagLabelsByNoteIds(List.of(note.getId()))
+                .getOrDefault(note.getId(), List.of());
     }
 }
@@ -2,8 +2,12 @@ package sn.notes.notessuitemodule.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
 import sn.notes.notessuitemodule.domain.Note;
 import sn.notes.notessuitemodule.domain.PublicLink;
 import sn.notes.notessuitemodule.domain.User;
@@ -12,12 +16,21 @@ import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.exception.UnauthorizedException;
 import sn.notes.notessuitemodule.repository.NoteRepository;
 import sn.notes.notessuitemodule.repository.PublicLinkRepository;
+import sn.notes.notessuitemodule.repository.support.PublicLinkViewCounter;
+import sn.notes.notessuitemodule.service.cache.NoteHtmlCache;
+import sn.notes.notessuitemodule.service.cache.PublicNoteCache;
+import sn.notes.notessuitemodule.service.cache.PublicNoteCache.PublicNote;
+import sn.notes.notessuitemodule.service.dto.NoteHtml;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
 import sn.notes.notessuitemodule.service.dto.PublicLinkResponse;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.PublicLinkDeletedEvent;
 import sn.notes.notessuitemodule.service.interfaces.PublicLinkService;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 import sn.notes.notessuitemodule.service.mapper.NoteMapper;
 import sn.notes.notessuitemodule.service.mapper.PublicLinkMapper;
+import sn.notes.notessuitemodule.service.render.MarkdownRenderer;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +45,12 @@ public class PublicLinkServiceImpl implements PublicLinkService {
     private final UserService userService;
     private final PublicLinkMapper publicLinkMapper;
     private final NoteMapper noteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PublicNoteCache publicNoteCache;
+    private final NoteHtmlCache noteHtmlCache;
+    private final MarkdownRenderer markdownRenderer;
+    private final PublicLinkViewCounter publicLinkViewCounter;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -46,6 +65,7 @@ public class PublicLinkServiceImpl implements PublicLinkService {
         // Mettre à jour la visibilité de la note
         note.setVisibility(Visibility.PUBLIC);
         noteRepository.save(note);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
 
         String urlToken = UUID.randomUUID().toString();
 
@@ -75,25 +95,30 @@ public class PublicLinkServiceImpl implements PublicLinkService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public NoteResponse getNoteByPublicToken(String urlToken) {
         log.info("Getting note by public token: {}", urlToken);
 
-        PublicLink publicLink = publicLinkRepository.findByUrlToken(urlToken)
-                .orElseThrow(() -> new ResourceNotFoundException("Public link not found"));
+        // Hors transaction : une note en cache est servie sans connexion à la base
+        return publicNoteCache.get(urlToken, () -> loadPublicNote(urlToken)).note();
+    }
 
-        // Vérifier l'expiration si définie
-        if (publicLink.getExpiresAt() != null && publicLink.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new UnauthorizedException("This public link has expired");
-        }
+    @Override
+    public NoteHtml getNoteHtmlByPublicToken(String urlToken) {
+        log.info("Getting note HTML by public token: {}", urlToken);
 
-        Note note = publicLink.getNote();
+        NoteResponse note = getNoteByPublicToken(urlToken);
+        // Rendu une fois par version de la note, pas à chaque lecture
+        return noteHtmlCache.get(new NoteVersion(note.id(), note.updatedAt()), () -> htmlPage(note));
+    }
 
-        if (note.getVisibility() != Visibility.PUBLIC) {
-            throw new UnauthorizedException("This note is no longer public");
-        }
+    @Override
+    public NoteVersion getNoteVersionByPublicToken(String urlToken) {
+        log.debug("Getting note version by public token: {}", urlToken);
 
-        return noteMapper.toResponse(note);
+        // Chargée en cache dès la première vue : les revalidations suivantes sont servies sans la base
+        PublicNote publicNote = publicNoteCache.get(urlToken, () -> loadPublicNote(urlToken));
+        publicLinkViewCounter.increment(publicNote.linkId());
+        return new NoteVersion(publicNote.note().id(), publicNote.note().updatedAt());
     }
 
     @Override
@@ -109,6 +134,7 @@ public class PublicLinkServiceImpl implements PublicLinkService {
         validateNoteOwnership(publicLink.getNote(), user);
 
         publicLinkRepository.delete(publicLink);
+        eventPublisher.publishEvent(new PublicLinkDeletedEvent(publicLink.getUrlToken()));
 
         // Si c'était le dernier lien public, remettre la note en SHARED ou PRIVATE
         Note note = publicLink.getNote();
@@ -119,6 +145,7 @@ public class PublicLinkServiceImpl implements PublicLinkService {
                 note.setVisibility(Visibility.SHARED);
             }
             noteRepository.save(note);
+            eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
         }
 
         log.info("Public link deleted successfully: {}", publicLinkId);
@@ -131,6 +158,42 @@ public class PublicLinkServiceImpl implements PublicLinkService {
                 .orElseThrow(() -> new ResourceNotFoundException("Note not found with id: " + id));
     }
 
+    private PublicNote loadPublicNote(String urlToken) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            PublicLink publicLink = publicLinkRepository.findByUrlToken(urlToken)
+                    .orElseThrow(() -> new ResourceNotFoundException("Public link not found"));
+
+            Note note = publicLink.getNote();
+            validatePublicAccess(publicLink.getExpiresAt(), note.getVisibility());
+
+            return new PublicNote(publicLink.getId(), noteMapper.toResponse(note), publicLink.getExpiresAt());
+        });
+    }
+
+    private String htmlPage(NoteResponse note) {
+        String title = HtmlUtils.htmlEscape(note.title());
+        return "<!DOCTYPE html>\n"
+                + "<html>\n<head>\n<meta charset=\"utf-8\">\n"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n"
+                + "<title>" + title + "</title>\n</head>\n"
+                + "<body>\n<article>\n<h1>" + title + "</h1>\n"
+                + markdownRenderer.render(note.contentMd())
+                + "</article>\n</body>\n</html>\n";
+    }
+
+    private void validatePublicAccess(LocalDateTime expiresAt, Visibility visibility) {
+        // Vérifier l'expiration si définie
+        if (expiresAt != null && expiresAt.isBefore(LocalDateTime.now())) {
+            throw new UnauthorizedException("This public link has expired");
+        }
+
+        if (visibility != Visibility.PUBLIC) {
+            throw new UnauthorizedException("This note is no longer public");
+        }
+    }
+
     private void validateNoteOwnership(Note note, User user) {
         if (!note.getOwner().getId().equals(user.getId())) {
             throw new UnauthorizedException("You don't have permission to manage public links for this note");
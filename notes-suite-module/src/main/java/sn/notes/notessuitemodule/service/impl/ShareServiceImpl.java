@@ -2,6 +2,7 @@ package sn.notes.notessuitemodule.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import sn.notes.notessuitemodule.domain.*;
@@ -12,8 +13,11 @@ import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.exception.UnauthorizedException;
 import sn.notes.notessuitemodule.repository.NoteRepository;
 import sn.notes.notessuitemodule.repository.ShareRepository;
+import sn.notes.notessuitemodule.service.cache.NoteAccessCache;
 import sn.notes.notessuitemodule.service.dto.ShareResponse;
 import sn.notes.notessuitemodule.service.dto.ShareWithUserRequest;
+import sn.notes.notessuitemodule.service.event.NoteAccessChangedEvent;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
 import sn.notes.notessuitemodule.service.interfaces.ShareService;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 import sn.notes.notessuitemodule.service.mapper.ShareMapper;
@@ -25,9 +29,11 @@ import java.util.List;
 @Slf4j
 public class ShareServiceImpl implements ShareService {
     private final ShareRepository shareRepository;
+    private final NoteAccessCache noteAccessCache;
     private final NoteRepository noteRepository;
     private final UserService userService;
     private final ShareMapper shareMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -53,6 +59,7 @@ public class ShareServiceImpl implements ShareService {
         if (note.getVisibility() == Visibility.PRIVATE) {
             note.setVisibility(Visibility.SHARED);
             noteRepository.save(note);
+            eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
         }
 
         Share share = Share.builder()
@@ -62,6 +69,7 @@ public class ShareServiceImpl implements ShareService {
                 .build();
 
         share = shareRepository.save(share);
+        eventPublisher.publishEvent(new NoteAccessChangedEvent(note.getId(), sharedWithUser.getId()));
 
         log.info("Note shared successfully with user: {}", request.email());
         return shareMapper.toResponse(share);
@@ -94,12 +102,14 @@ public class ShareServiceImpl implements ShareService {
         validateNoteOwnership(share.getNote(), user);
 
         shareRepository.delete(share);
+        eventPublisher.publishEvent(new NoteAccessChangedEvent(share.getNote().getId(), share.getSharedWithUser().getId()));
 
         // Si c'était le dernier partage, remettre la note en privé
         Note note = share.getNote();
         if (shareRepository.findByNote(note).isEmpty() && note.getPublicLinks().isEmpty()) {
             note.setVisibility(Visibility.PRIVATE);
             noteRepository.save(note);
+            eventPublisher.publishEvent(NoteChangedEvent.saved(note.getId()));
         }
 
         log.info("Share removed successfully: {}", shareId);
@@ -117,7 +127,8 @@ public class ShareServiceImpl implements ShareService {
         }
 
         // Partagé avec l'utilisateur
-        return shareRepository.existsByNoteAndSharedWithUser(note, user);
+        return noteAccessCache.isSharedWith(note.getId(), user.getId(),
+                () -> shareRepository.existsByNoteAndSharedWithUser(note, user));
     }
 
     // Méthodes utilitaires privées
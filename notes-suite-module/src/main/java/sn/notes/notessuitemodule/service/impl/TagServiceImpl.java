@@ -0,0 +1,45 @@
+package sn.notes.notessuitemodule.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+import sn.notes.notessuitemodule.service.interfaces.TagService;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
+import sn.notes.notessuitemodule.service.search.TagSuggestionIndex;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TagServiceImpl implements TagService {
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final TagSuggestionIndex tagSuggestionIndex;
+    private final TagCountRepository tagCountRepository;
+    private final UserService userService;
+
+    @Override
+    public List<TagUsage> suggestTags(String prefix, int limit, String userEmail) {
+        log.debug("Suggesting tags for user: {} with prefix: {}", userEmail, prefix);
+
+        User user = userService.findByEmail(userEmail);
+        int size = limit > 0 && limit <= MAX_SUGGESTIONS ? limit : 10;
+
+        return tagSuggestionIndex.suggest(user.getId(), prefix, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagUsage> getTagFacets(String userEmail) {
+        log.debug("Getting tag facets for user: {}", userEmail);
+
+        User user = userService.findByEmail(userEmail);
+
+        return tagCountRepository.findUsagesByUserId(user.getId());
+    }
+}
@@ -7,20 +7,42 @@ import org.springframework.transaction.annotation.Transactional;
 import sn.notes.notessuitemodule.domain.User;
 import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.repository.UserRepository;
+import sn.notes.notessuitemodule.service.cache.UserIdentity;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
+    /**
+     * Resolves the caller from the identity cache when possible. A cache hit returns a detached
+     * user holding only its id and email, which is all the services need to check ownership
+     * or reference it from an association.
+     */
     @Override
-    @Transactional(readOnly = true)
     public User findByEmail(String email) {
+        Optional<UserIdentity> cached = userIdentityCache.get(email);
+        if (cached.isPresent()) {
+            return cached.get().toUser();
+        }
+
         log.debug("Finding user by email: {}", email);
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
+        User user = loadByEmail(email);
+        userIdentityCache.put(UserIdentity.of(user));
+        return user;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findByEmailForAuthentication(String email) {
+        log.debug("Loading credentials for user: {}", email);
+        return loadByEmail(email);
     }
 
     @Override
@@ -38,6 +60,13 @@ public class UserServiceImpl implements UserService {
                 .email(email)
                 .passwordHash(passwordHash)
                 .build();
-        return userRepository.save(user);
+        user = userRepository.save(user);
+        userIdentityCache.evict(email);
+        return user;
+    }
+
+    private User loadByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
 }
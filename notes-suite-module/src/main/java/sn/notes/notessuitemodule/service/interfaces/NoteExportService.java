@@ -0,0 +1,9 @@
+package sn.notes.notessuitemodule.service.interfaces;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface NoteExportService {
+    void exportNdjson(String userEmail, OutputStream output) throws IOException;
+    void exportMarkdownZip(String userEmail, OutputStream output) throws IOException;
+}
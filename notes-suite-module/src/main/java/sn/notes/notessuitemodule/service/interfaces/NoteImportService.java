@@ -0,0 +1,12 @@
+package sn.notes.notessuitemodule.service.interfaces;
+
+import sn.notes.notessuitemodule.service.dto.NoteImportProgress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface NoteImportService {
+    void importNdjson(InputStream input, String userEmail, Consumer<NoteImportProgress> progress) throws IOException;
+    void importMarkdownZip(InputStream input, String userEmail, Consumer<NoteImportProgress> progress) throws IOException;
+}
@@ -0,0 +1,11 @@
+package sn.notes.notessuitemodule.service.interfaces;
+
+import org.springframework.data.domain.Page;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionDiff;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionResponse;
+
+public interface NoteRevisionService {
+    Page<NoteRevisionResponse> getRevisions(Long noteId, Integer page, Integer size, String userEmail);
+    NoteRevisionResponse getRevision(Long noteId, int revision, String userEmail);
+    NoteRevisionDiff diffRevisions(Long noteId, int fromRevision, int toRevision, String userEmail);
+}
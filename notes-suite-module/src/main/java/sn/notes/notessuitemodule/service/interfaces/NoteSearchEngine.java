@@ -0,0 +1,13 @@
+package sn.notes.notessuitemodule.service.interfaces;
+
+import org.springframework.data.domain.Page;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+
+/**
+ * Search engine answering {@link NoteService#searchNotes} text queries in place of the database.
+ */
+public interface NoteSearchEngine {
+    Page<NoteResponse> search(User owner, NoteSearchCriteria criteria);
+}
@@ -4,13 +4,20 @@ import org.springframework.data.domain.Page;
 import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
 import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.PatchNoteContentRequest;
 import sn.notes.notessuitemodule.service.dto.UpdateNoteRequest;
+import sn.notes.notessuitemodule.service.dto.response.CursorPage;
 
 public interface NoteService {
     NoteResponse createNote(CreateNoteRequest request, String userEmail);
     Page<NoteResponse> searchNotes(NoteSearchCriteria criteria, String userEmail);
+    CursorPage<NoteResponse> searchNotesByCursor(NoteSearchCriteria criteria, String userEmail);
     NoteResponse getNoteById(Long id, String userEmail);
+    NoteVersion getNoteVersion(Long id, String userEmail);
     NoteResponse updateNote(Long id, UpdateNoteRequest request, String userEmail);
+    NoteVersion patchNoteContent(Long id, PatchNoteContentRequest request, String userEmail);
     void deleteNote(Long id, String userEmail);
     Page<NoteResponse> getSharedNotes(NoteSearchCriteria criteria, String userEmail);
+    CursorPage<NoteResponse> getSharedNotesByCursor(NoteSearchCriteria criteria, String userEmail);
 }
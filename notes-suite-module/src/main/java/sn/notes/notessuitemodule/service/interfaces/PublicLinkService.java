@@ -1,6 +1,8 @@
 package sn.notes.notessuitemodule.service.interfaces;
 
+import sn.notes.notessuitemodule.service.dto.NoteHtml;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
 import sn.notes.notessuitemodule.service.dto.PublicLinkResponse;
 
 import java.util.List;
@@ -9,5 +11,10 @@ public interface PublicLinkService {
     PublicLinkResponse createPublicLink(Long noteId, String userEmail);
     List<PublicLinkResponse> getPublicLinksForNote(Long noteId, String userEmail);
     NoteResponse getNoteByPublicToken(String urlToken);
+    NoteHtml getNoteHtmlByPublicToken(String urlToken);
+    /**
+     * Version of the note served by the token, the first read of every public view: it also counts the view.
+     */
+    NoteVersion getNoteVersionByPublicToken(String urlToken);
     void deletePublicLink(Long publicLinkId, String userEmail);
 }
@@ -0,0 +1,10 @@
+package sn.notes.notessuitemodule.service.interfaces;
+
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+
+import java.util.List;
+
+public interface TagService {
+    List<TagUsage> suggestTags(String prefix, int limit, String userEmail);
+    List<TagUsage> getTagFacets(String userEmail);
+}
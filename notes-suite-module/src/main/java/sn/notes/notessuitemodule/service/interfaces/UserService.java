@@ -4,6 +4,7 @@ import sn.notes.notessuitemodule.domain.User;
 
 public interface UserService {
     User findByEmail(String email);
+    User findByEmailForAuthentication(String email);
     boolean existsByEmail(String email);
     User createUser(String email, String passwordHash);
 }
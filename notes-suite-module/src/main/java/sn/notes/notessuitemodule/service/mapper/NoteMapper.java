@@ -15,6 +15,7 @@ public interface NoteMapper {
 
     @Mapping(source = "owner.email", target = "ownerEmail")
     @Mapping(source = "noteTags", target = "tags", qualifiedByName = "noteTagsToStrings")
+    @Mapping(target = "highlight", ignore = true)
     NoteResponse toResponse(Note note);
 
     List<NoteResponse> toResponseList(List<Note> notes);
@@ -0,0 +1,47 @@
+package sn.notes.notessuitemodule.service.render;
+
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.task.list.items.TaskListItemsExtension;
+import org.commonmark.node.Link;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.DefaultUrlSanitizer;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Renders note Markdown (CommonMark with GFM tables, strikethrough and task lists) to an HTML fragment that is
+ * safe to serve: raw HTML in the note is escaped and links or images may only use http, https or mailto URLs.
+ */
+@Component
+public class MarkdownRenderer {
+    private static final List<Extension> EXTENSIONS = List.of(
+            TablesExtension.create(),
+            StrikethroughExtension.create(),
+            TaskListItemsExtension.create());
+
+    // Parser et renderer sont immuables : partagés entre les threads
+    private final Parser parser = Parser.builder()
+            .extensions(EXTENSIONS)
+            .build();
+
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .extensions(EXTENSIONS)
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .urlSanitizer(new DefaultUrlSanitizer(List.of("http", "https", "mailto")))
+            // Contenu écrit par les utilisateurs : les liens ne transmettent ni référence ni réputation
+            .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                if (node instanceof Link) {
+                    attributes.put("rel", "nofollow ugc noopener noreferrer");
+                }
+            })
+            .build();
+
+    public String render(String markdown) {
+        return renderer.render(parser.parse(markdown != null ? markdown : ""));
+    }
+}
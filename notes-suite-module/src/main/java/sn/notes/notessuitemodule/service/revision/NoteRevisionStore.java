@@ -0,0 +1,148 @@
+package sn.notes.notessuitemodule.service.revision;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.NoteRevision;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+import sn.notes.notessuitemodule.domain.support.TextDiff;
+import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
+import sn.notes.notessuitemodule.repository.NoteRevisionRepository;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Revision history of note contents. Each revision is identified by the SHA-256 of its content and stored
+ * as the edits from the previous one, with a compressed snapshot every {@code notes.revisions.snapshot-interval}
+ * revisions: rebuilding a revision reads one snapshot and applies fewer deltas than that interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class NoteRevisionStore {
+    private final NoteRevisionRepository noteRevisionRepository;
+
+    @Value("${notes.revisions.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    /**
+     * Records the current content of the note as a new revision, unless it is the content of the latest one.
+     * previousContent is the content the write replaced, null for a new note.
+     */
+    public void record(Note note, String previousContent) {
+        String content = Objects.toString(note.getContentMd(), "");
+        String hash = hash(content);
+
+        NoteRevision latest = noteRevisionRepository.findFirstByNoteIdOrderByRevisionDesc(note.getId()).orElse(null);
+        if (latest != null && latest.getContentHash().equals(hash)) {
+            return;
+        }
+
+        // Note écrite avant l'historique, ou importée : le contenu remplacé devient la première révision
+        if (latest == null && previousContent != null && !previousContent.equals(content)) {
+            latest = save(note, 1, previousContent, hash(previousContent), 0, NoteContentCodec.deflate(previousContent));
+        }
+
+        int revision = latest != null ? latest.getRevision() + 1 : 1;
+        // Delta seulement sur la révision précédente intacte et tant que la chaîne reste courte
+        if (latest != null && previousContent != null
+                && latest.getChainLength() + 1 < snapshotInterval
+                && latest.getContentHash().equals(hash(previousContent))) {
+            byte[] delta = encode(TextDiff.between(previousContent, content).edits());
+            // Une réécriture presque complète coûte moins en snapshot compressé
+            if (delta.length < content.length() / 2) {
+                save(note, revision, content, hash, latest.getChainLength() + 1, delta);
+                return;
+            }
+        }
+        save(note, revision, content, hash, 0, NoteContentCodec.deflate(content));
+    }
+
+    /**
+     * Content of a revision, rebuilt from its snapshot and checked against its hash.
+     */
+    public String contentOf(Long noteId, int revision) {
+        NoteRevision target = findRevision(noteId, revision);
+        List<NoteRevision> chain = noteRevisionRepository.findByNoteIdAndRevisionBetweenOrderByRevision(
+                noteId, revision - target.getChainLength(), revision);
+
+        String content = NoteContentCodec.inflate(chain.get(0).getData());
+        for (NoteRevision delta : chain.subList(1, chain.size())) {
+            content = TextDiff.apply(content, decode(delta.getData()));
+        }
+
+        if (!hash(content).equals(target.getContentHash())) {
+            throw new IllegalStateException("Revision " + revision + " of note " + noteId + " does not match its hash");
+        }
+        return content;
+    }
+
+    public NoteRevision findRevision(Long noteId, int revision) {
+        return noteRevisionRepository.findByNoteIdAndRevision(noteId, revision)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Revision " + revision + " not found for note with id: " + noteId));
+    }
+
+    // Méthodes utilitaires privées
+
+    private NoteRevision save(Note note, int revision, String content, String hash, int chainLength, byte[] data) {
+        return noteRevisionRepository.save(NoteRevision.builder()
+                .note(note)
+                .revision(revision)
+                .contentHash(hash)
+                .contentLength(content.length())
+                .chainLength(chainLength)
+                .data(data)
+                .build());
+    }
+
+    private static String hash(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] encode(List<TextDiff.Edit> edits) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(edits.size());
+            for (TextDiff.Edit edit : edits) {
+                byte[] insert = edit.insert().getBytes(StandardCharsets.UTF_8);
+                output.writeInt(edit.offset());
+                output.writeInt(edit.deleteCount());
+                output.writeInt(insert.length);
+                output.write(insert);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<TextDiff.Edit> decode(byte[] data) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = input.readInt();
+            List<TextDiff.Edit> edits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int offset = input.readInt();
+                int deleteCount = input.readInt();
+                byte[] insert = new byte[input.readInt()];
+                input.readFully(insert);
+                edits.add(new TextDiff.Edit(offset, deleteCount, new String(insert, StandardCharsets.UTF_8)));
+            }
+            return edits;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package sn.notes.notessuitemodule.service.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.*;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
+import sn.notes.notessuitemodule.service.dto.NoteIndexRow;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.SearchIndexStatus;
+import sn.notes.notessuitemodule.service.dto.response.SearchPage;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.interfaces.NoteSearchEngine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index of the notes, enabled with {@code notes.search.engine=lucene}.
+ * <p>
+ * The index lives on local disk (memory-mapped) and follows the database through {@link NoteChangedEvent}s:
+ * changed notes are read back once their transaction has committed, and become searchable within a second
+ * (near-real-time reopen). Lucene commits run on a schedule; whatever a crash loses is found by the
+ * consistency check run at startup and re-indexed.
+ * <p>
+ * Text queries match the title and the content with typo tolerance (fuzzy terms) and prefix matching on the
+ * last word, and return highlighted passages and tag counts.
+ */
+@Service
+@ConditionalOnProperty(name = "notes.search.engine", havingValue = "lucene")
+@RequiredArgsConstructor
+@Slf4j
+public class LuceneNoteSearchEngine implements NoteSearchEngine {
+    private static final String ID = "id";
+    private static final String OWNER = "owner";
+    private static final String VISIBILITY = "visibility";
+    private static final String TAG = "tag";
+    private static final String TITLE = "title";
+    private static final String TITLE_ORDER = "title_order";
+    private static final String CONTENT = "content";
+    private static final String EXCERPT = "excerpt";
+    private static final String UPDATED_AT = "updated_at";
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_TAG_FACETS = 20;
+    private static final int INDEX_LOCK_STRIPES = 64;
+    // Fraîcheur du lecteur : au plus 1 s de retard, 100 ms quand une recherche attend une écriture
+    private static final double MAX_STALE_SECONDS = 1.0;
+    private static final double MIN_STALE_SECONDS = 0.1;
+    private static final FieldType CONTENT_TYPE = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        // Positions et offsets indexés : surlignage sans réanalyser le contenu
+        CONTENT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        CONTENT_TYPE.freeze();
+    }
+
+    private final NoteRepository noteRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notes.search.lucene.directory:./data/search-index}")
+    private Path indexPath;
+
+    @Value("${notes.search.lucene.commit-interval:30s}")
+    private Duration commitInterval;
+
+    @Value("${notes.search.lucene.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private final Analyzer analyzer = new NoteAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private ScheduledExecutorService committer;
+    private volatile SortedSetDocValuesReaderState tagFacetsState;
+    private final AtomicLong lastWrite = new AtomicLong(-1);
+    // Verrous des notes, répartis par id : une note est lue en base puis écrite dans l'index sans écriture concurrente
+    private final ReentrantLock[] indexLocks = Stream.generate(ReentrantLock::new)
+            .limit(INDEX_LOCK_STRIPES)
+            .toArray(ReentrantLock[]::new);
+
+    @PostConstruct
+    public void open() throws IOException {
+        facetsConfig.setMultiValued(TAG, true);
+
+        directory = new MMapDirectory(indexPath);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, MAX_STALE_SECONDS, MIN_STALE_SECONDS);
+        reopenThread.setName("notes-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notes-search-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commit,
+                commitInterval.toMillis(), commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        log.info("Search index opened at {} ({} notes)", indexPath.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdown();
+        reopenThread.close();
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void synchronizeOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+            return;
+        }
+        SearchIndexStatus status = repair();
+        if (!status.consistent()) {
+            log.warn("Search index repaired at startup: {}", status);
+        }
+    }
+
+    /**
+     * Re-indexes the changed notes once their transaction has committed, so that the index never shows
+     * a change that was rolled back. Each note is read and written under its lock, so that of two close writes
+     * the later commit is indexed last. Failures are logged: the database stays the source of truth and the
+     * next consistency check repairs the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        try {
+            if (event.deleted()) {
+                locked(event.noteIds(), () -> delete(event.noteIds()));
+            } else {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                transactionTemplate.setReadOnly(true);
+                transactionTemplate.executeWithoutResult(status -> index(event.noteIds()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to index notes {}", event.noteIds(), e);
+        }
+    }
+
+    @Override
+    public Page<NoteResponse> search(User owner, NoteSearchCriteria criteria) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(textQuery(criteria.getQuery()), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(OWNER, owner.getId().toString())), BooleanClause.Occur.FILTER);
+        if (criteria.getVisibility() != null) {
+            builder.add(new TermQuery(new Term(VISIBILITY, criteria.getVisibility().name())), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getTag() != null && !criteria.getTag().isBlank()) {
+            builder.add(new TermQuery(new Term(TAG, criteria.getTag())), BooleanClause.Occur.FILTER);
+        }
+        Query query = builder.build();
+
+        int page = criteria.getPageNumber();
+        int size = criteria.getPageSize();
+
+        awaitLastWrite();
+        IndexSearcher searcher = acquire();
+        try {
+            // Réécrite une seule fois (automates fuzzy et préfixes) pour la recherche et le surlignage
+            Query rewritten = searcher.rewrite(query);
+            FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.search(
+                    searcher, rewritten, (page + 1) * size, sortOf(criteria), true, new FacetsCollectorManager());
+
+            ScoreDoc[] hits = result.topDocs().scoreDocs;
+            ScoreDoc[] pageHits = page * size < hits.length
+                    ? Arrays.copyOfRange(hits, page * size, hits.length)
+                    : new ScoreDoc[0];
+            String[] highlights = highlighter(searcher)
+                    .highlight(CONTENT, rewritten, new TopDocs(result.topDocs().totalHits, pageHits), 1);
+
+            List<NoteResponse> notes = new ArrayList<>(pageHits.length);
+            StoredFields storedFields = searcher.storedFields();
+            for (int i = 0; i < pageHits.length; i++) {
+                notes.add(toResponse(storedFields.document(pageHits[i].doc), owner.getEmail(), highlights[i],
+                        criteria.isFullView()));
+            }
+
+            long total = result.facetsCollector().getMatchingDocs().stream()
+                    .mapToLong(matchingDocs -> matchingDocs.totalHits)
+                    .sum();
+            return new SearchPage<>(notes, PageRequest.of(page, size), total,
+                    tagFacets(searcher, result.facetsCollector()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Replaces the whole index with the notes of the database, then repairs the notes changed meanwhile.
+     */
+    public synchronized SearchIndexStatus rebuild() {
+        log.info("Rebuilding the search index");
+        long indexed = 0;
+        try {
+            writer.deleteAll();
+            indexed = readInTransaction(() -> {
+                long count = 0;
+                List<NoteIndexRow> batch = new ArrayList<>(BATCH_SIZE);
+                try (Stream<NoteIndexRow> rows = noteRepository.streamIndexRows()) {
+                    Iterator<NoteIndexRow> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                            write(batch);
+                            count += batch.size();
+                            batch.clear();
+                        }
+                    }
+                }
+                return count;
+            });
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Search index rebuilt with {} notes", indexed);
+        return repair();
+    }
+
+    /**
+     * Compares the index with the database without changing either.
+     */
+    public SearchIndexStatus check() {
+        return compare().status();
+    }
+
+    /**
+     * Re-indexes missing and stale notes and removes deleted ones. Returns the state found before repairing.
+     */
+    public synchronized SearchIndexStatus repair() {
+        IndexComparison comparison = compare();
+        try {
+            locked(comparison.orphaned(), () -> delete(comparison.orphaned()));
+            List<Long> outdated = comparison.outdated();
+            for (int from = 0; from < outdated.size(); from += BATCH_SIZE) {
+                List<Long> batch = outdated.subList(from, Math.min(from + BATCH_SIZE, outdated.size()));
+                readInTransaction(() -> {
+                    index(batch);
+                    return null;
+                });
+            }
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return comparison.status();
+    }
+
+    // Méthodes utilitaires privées
+
+    private void index(Collection<Long> noteIds) {
+        // Lecture sous les verrous : une écriture plus ancienne de la même note ne peut plus passer après
+        locked(noteIds, () -> {
+            List<NoteIndexRow> rows = noteRepository.findIndexRowsByIdIn(noteIds);
+            write(rows);
+            // Notes supprimées entre l'événement et la lecture
+            Set<Long> found = new HashSet<>();
+            rows.forEach(row -> found.add(row.id()));
+            delete(noteIds.stream().filter(noteId -> !found.contains(noteId)).toList());
+        });
+    }
+
+    private void delete(Collection<Long> noteIds) {
+        try {
+            for (Long noteId : noteIds) {
+                written(writer.deleteDocuments(idTerm(noteId)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of the notes, taken in stripe order so that two batches never deadlock.
+     */
+    private void locked(Collection<Long> noteIds, Runnable action) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        noteIds.forEach(noteId -> stripes.add(Math.floorMod(noteId.hashCode(), INDEX_LOCK_STRIPES)));
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                indexLocks[stripe].lock();
+                held.add(indexLocks[stripe]);
+            }
+            action.run();
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private void write(List<NoteIndexRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, List<String>> labels = noteRepository.findTagLabelsByNoteIds(
+                rows.stream().map(NoteIndexRow::id).toList());
+        try {
+            for (NoteIndexRow row : rows) {
+                written(writer.updateDocument(idTerm(row.id()),
+                        facetsConfig.build(toDocument(row, labels.getOrDefault(row.id(), List.of())))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document toDocument(NoteIndexRow row, List<String> tags) {
+        Document document = new Document();
+        document.add(new StringField(ID, row.id().toString(), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, row.id()));
+        document.add(new StringField(OWNER, row.ownerId().toString(), Field.Store.NO));
+        document.add(new StringField(VISIBILITY, row.visibility().name(), Field.Store.YES));
+
+        String title = Objects.toString(row.title(), "");
+        document.add(new TextField(TITLE, title, Field.Store.YES));
+        document.add(new SortedDocValuesField(TITLE_ORDER, new BytesRef(title.toLowerCase(Locale.ROOT))));
+        document.add(new Field(CONTENT, Objects.toString(row.contentMd(), ""), CONTENT_TYPE));
+        if (row.excerpt() != null) {
+            document.add(new StoredField(EXCERPT, row.excerpt()));
+        }
+
+        long version = version(row.updatedAt());
+        document.add(new NumericDocValuesField(UPDATED_AT, version));
+        document.add(new StoredField(UPDATED_AT, version));
+
+        for (String tag : tags) {
+            document.add(new StringField(TAG, tag, Field.Store.YES));
+            document.add(new SortedSetDocValuesFacetField(TAG, tag));
+        }
+        return document;
+    }
+
+    private NoteResponse toResponse(Document document, String ownerEmail, String highlight, boolean fullView) {
+        IndexableField updatedAt = document.getField(UPDATED_AT);
+        return new NoteResponse(
+                Long.valueOf(document.get(ID)),
+                document.get(TITLE),
+                fullView ? document.get(CONTENT) : null,
+                document.get(EXCERPT),
+                highlight,
+                Visibility.valueOf(document.get(VISIBILITY)),
+                ownerEmail,
+                List.of(document.getValues(TAG)),
+                null,
+                updatedAt != null ? fromVersion(updatedAt.numericValue().longValue()) : null);
+    }
+
+    /**
+     * Every word must match the title or the content, exactly, with typos, or as a prefix for the last word
+     * (the one still being typed). Title matches and exact matches score higher.
+     */
+    private Query textQuery(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            List<Query> alternatives = new ArrayList<>();
+            alternatives.add(new BoostQuery(new TermQuery(new Term(TITLE, term)), 3f));
+            alternatives.add(new TermQuery(new Term(CONTENT, term)));
+
+            if (term.length() >= 3) {
+                int maxEdits = term.length() >= 6 ? 2 : 1;
+                alternatives.add(new BoostQuery(new FuzzyQuery(new Term(TITLE, term), maxEdits, 1), 1.5f));
+                alternatives.add(new BoostQuery(new FuzzyQuery(new Term(CONTENT, term), maxEdits, 1), 0.5f));
+            }
+            if (i == terms.size() - 1 && term.length() >= 2) {
+                alternatives.add(new BoostQuery(new PrefixQuery(new Term(TITLE, term)), 2f));
+                alternatives.add(new BoostQuery(new PrefixQuery(new Term(CONTENT, term)), 0.5f));
+            }
+            builder.add(new DisjunctionMaxQuery(alternatives, 0.1f), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(CONTENT, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Sort sortOf(NoteSearchCriteria criteria) {
+        boolean reverse = !"asc".equals(criteria.getSortOrder());
+        SortField byId = new SortField(ID, SortField.Type.LONG, true);
+        return switch (criteria.getSortField()) {
+            case "updatedAt" -> new Sort(new SortField(UPDATED_AT, SortField.Type.LONG, reverse), byId);
+            case "title" -> new Sort(new SortField(TITLE_ORDER, SortField.Type.STRING, reverse), byId);
+            // Pertinence, y compris pour les champs non indexés
+            default -> new Sort(SortField.FIELD_SCORE, byId);
+        };
+    }
+
+    private UnifiedHighlighter highlighter(IndexSearcher searcher) {
+        return UnifiedHighlighter.builder(searcher, analyzer)
+                .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", "… ", true))
+                .build();
+    }
+
+    private Map<String, Long> tagFacets(IndexSearcher searcher, FacetsCollector facetsCollector) throws IOException {
+        SortedSetDocValuesReaderState state = tagFacetsState;
+        if (state == null || state.getReader() != searcher.getIndexReader()) {
+            try {
+                state = new DefaultSortedSetDocValuesReaderState(searcher.getIndexReader(), facetsConfig);
+            } catch (IllegalArgumentException e) {
+                // Aucune note taguée dans l'index
+                return Map.of();
+            }
+            tagFacetsState = state;
+        }
+
+        FacetResult result = new SortedSetDocValuesFacetCounts(state, facetsCollector)
+                .getTopChildren(MAX_TAG_FACETS, TAG);
+        Map<String, Long> facets = new LinkedHashMap<>();
+        if (result != null) {
+            for (LabelAndValue labelAndValue : result.labelValues) {
+                facets.put(labelAndValue.label, labelAndValue.value.longValue());
+            }
+        }
+        return facets;
+    }
+
+    private IndexComparison compare() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<Long, Long> indexed = indexedVersions();
+        long indexedCount = indexed.size();
+        List<Long> outdated = new ArrayList<>();
+        long[] counts = new long[3];
+
+        readInTransaction(() -> {
+            try (Stream<NoteVersion> versions = noteRepository.streamVersions()) {
+                versions.forEach(note -> {
+                    counts[0]++;
+                    Long version = indexed.remove(note.id());
+                    if (version == null) {
+                        counts[1]++;
+                        outdated.add(note.id());
+                    } else if (version != version(note.updatedAt())) {
+                        counts[2]++;
+                        outdated.add(note.id());
+                    }
+                });
+            }
+            return null;
+        });
+
+        SearchIndexStatus status = new SearchIndexStatus(counts[0], indexedCount, counts[1], counts[2], indexed.size());
+        return new IndexComparison(status, outdated, List.copyOf(indexed.keySet()));
+    }
+
+    private Map<Long, Long> indexedVersions() {
+        Map<Long, Long> versions = new HashMap<>();
+        IndexSearcher searcher = acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                LeafReader reader = leaf.reader();
+                NumericDocValues ids = DocValues.getNumeric(reader, ID);
+                NumericDocValues updatedAts = DocValues.getNumeric(reader, UPDATED_AT);
+                Bits liveDocs = reader.getLiveDocs();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if ((liveDocs == null || liveDocs.get(doc)) && ids.advanceExact(doc)) {
+                        versions.put(ids.longValue(), updatedAts.advanceExact(doc) ? updatedAts.longValue() : 0L);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+        return versions;
+    }
+
+    private <T> T readInTransaction(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to commit the search index", e);
+        }
+    }
+
+    private void written(long sequenceNumber) {
+        lastWrite.accumulateAndGet(sequenceNumber, Math::max);
+    }
+
+    /**
+     * Lets a user find a note right after saving it: the reopen thread refreshes the searcher early when asked
+     * for a given write. Never waits longer than the searcher could be stale anyway.
+     */
+    private void awaitLastWrite() {
+        long sequenceNumber = lastWrite.get();
+        if (sequenceNumber < 0) {
+            return;
+        }
+        try {
+            reopenThread.waitForGeneration(sequenceNumber, (int) (MAX_STALE_SECONDS * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release a search index reader", e);
+        }
+    }
+
+    private static Term idTerm(Long noteId) {
+        return new Term(ID, noteId.toString());
+    }
+
+    // Version d'une note : updatedAt en microsecondes, la précision des timestamps en base
+    private static long version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0L;
+        }
+        return ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt.toInstant(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime fromVersion(long version) {
+        return LocalDateTime.ofInstant(Instant.EPOCH.plus(version, ChronoUnit.MICROS), ZoneOffset.UTC);
+    }
+
+    private record IndexComparison(SearchIndexStatus status, List<Long> outdated, List<Long> orphaned) {
+    }
+
+    /**
+     * Standard tokenization, lower case and accents folded, so that "resume" finds "Résumé".
+     */
+    private static class NoteAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package sn.notes.notessuitemodule.service.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sn.notes.notessuitemodule.service.dto.SearchIndexStatus;
+
+/**
+ * Administration of the embedded search index: {@code GET /actuator/searchindex} compares it with the database,
+ * {@code POST /actuator/searchindex} rebuilds it. Exposed only if listed in
+ * {@code management.endpoints.web.exposure.include} (also available over JMX).
+ */
+@Component
+@Endpoint(id = "searchindex")
+@ConditionalOnProperty(name = "notes.search.engine", havingValue = "lucene")
+@RequiredArgsConstructor
+public class SearchIndexEndpoint {
+    private final LuceneNoteSearchEngine searchEngine;
+
+    @ReadOperation
+    public SearchIndexStatus check() {
+        return searchEngine.check();
+    }
+
+    @WriteOperation
+    public SearchIndexStatus rebuild() {
+        searchEngine.rebuild();
+        return searchEngine.check();
+    }
+}
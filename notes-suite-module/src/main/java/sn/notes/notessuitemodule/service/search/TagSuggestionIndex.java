@@ -0,0 +1,149 @@
+package sn.notes.notessuitemodule.service.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+import sn.notes.notessuitemodule.service.event.NoteTagsChangedEvent;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory tag completion. For each active user it keeps their labels sorted case-insensitively, with the
+ * number of their notes carrying each one: a lookup is a binary search for the prefix plus a scan of the
+ * matching range, without touching the database.
+ * <p>
+ * A user's labels are read from their stored tag counts on their first lookup and dropped by the
+ * {@link NoteTagsChangedEvent}s of committed transactions. Applying the event's deltas instead would count a
+ * change twice when the labels were read between the commit and the event.
+ */
+@Component
+public class TagSuggestionIndex {
+    private final TagCountRepository tagCountRepository;
+    private final Cache<Long, UserTags> tagsByOwner;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TagSuggestionIndex(TagCountRepository tagCountRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${notes.tags.suggestions.max-users:10000}") long maxUsers) {
+        this.tagCountRepository = tagCountRepository;
+        this.tagsByOwner = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tagsByOwner, "tags.suggestions");
+    }
+
+    /**
+     * Labels of the user starting with the prefix (case-insensitive), most used first, then alphabetically.
+     */
+    public List<TagUsage> suggest(Long ownerId, String prefix, int limit) {
+        String key = prefix == null ? "" : normalize(prefix.strip());
+        UserTags tags = tagsByOwner.getIfPresent(ownerId);
+        if (tags == null) {
+            long generation = invalidations.get();
+            tags = UserTags.of(tagCountRepository.findUsagesByUserId(ownerId));
+            tagsByOwner.put(ownerId, tags);
+            // Invalidation pendant la lecture : les comptages lus sont peut-être déjà périmés
+            if (invalidations.get() != generation) {
+                tagsByOwner.invalidate(ownerId);
+            }
+        }
+        return tags.complete(key, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(NoteTagsChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        tagsByOwner.invalidate(event.ownerId());
+    }
+
+    // Méthodes utilitaires privées
+
+    private static String normalize(String label) {
+        return label.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable labels of one user, dropped as a whole on each change: lookups never lock.
+     */
+    private static final class UserTags {
+        private static final Comparator<TagUsage> ORDER = Comparator
+                .comparing((TagUsage usage) -> normalize(usage.label()))
+                .thenComparing(TagUsage::label);
+
+        private final String[] keys;
+        private final String[] labels;
+        private final long[] counts;
+
+        private UserTags(String[] keys, String[] labels, long[] counts) {
+            this.keys = keys;
+            this.labels = labels;
+            this.counts = counts;
+        }
+
+        static UserTags of(Collection<TagUsage> usages) {
+            TagUsage[] sorted = usages.stream()
+                    .filter(usage -> usage.count() > 0)
+                    .sorted(ORDER)
+                    .toArray(TagUsage[]::new);
+
+            String[] keys = new String[sorted.length];
+            String[] labels = new String[sorted.length];
+            long[] counts = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = normalize(sorted[i].label());
+                labels[i] = sorted[i].label();
+                counts[i] = sorted[i].count();
+            }
+            return new UserTags(keys, labels, counts);
+        }
+
+        List<TagUsage> complete(String prefix, int limit) {
+            // Meilleurs rangs trouvés, par nombre de notes décroissant ; à égalité le premier dans l'ordre alphabétique
+            int[] best = new int[limit];
+            int size = 0;
+
+            for (int i = lowerBound(prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+                if (size == limit && counts[i] <= counts[best[size - 1]]) {
+                    continue;
+                }
+                int position = size < limit ? size++ : size - 1;
+                while (position > 0 && counts[i] > counts[best[position - 1]]) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = i;
+            }
+
+            List<TagUsage> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(new TagUsage(labels[best[i]], counts[best[i]]));
+            }
+            return suggestions;
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
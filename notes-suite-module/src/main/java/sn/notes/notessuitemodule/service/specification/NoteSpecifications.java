@@ -1,12 +1,22 @@
 package sn.notes.notessuitemodule.service.specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import sn.notes.notessuitemodule.domain.*;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.support.NoteSearchFunctions;
+import sn.notes.notessuitemodule.service.criteria.NoteCursor;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,6 +38,89 @@ public class NoteSpecifications {
         };
     }
 
+    /**
+     * Full-text match of the title and the content, see {@link NoteSearchFunctions}.
+     */
+    public static Specification<Note> matchesText(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (text == null || text.isBlank()) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.isTrue(criteriaBuilder.function(
+                    NoteSearchFunctions.MATCH, Boolean.class, root.get("id"), bound(criteriaBuilder, text)));
+        };
+    }
+
+    /**
+     * Orders by full-text rank, best match first, then by id. Contributes no predicate.
+     */
+    public static Specification<Note> orderByRelevance(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (query != null) {
+                query.orderBy(
+                        criteriaBuilder.desc(criteriaBuilder.function(
+                                NoteSearchFunctions.RANK, Double.class, root.get("id"), bound(criteriaBuilder, text))),
+                        criteriaBuilder.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Notes whose title or one of whose tags contains the fragment, case-insensitively; with {@code fuzzy},
+     * also those with a word close to it (trigram similarity). Served by the trigram indexes on PostgreSQL.
+     */
+    public static Specification<Note> containsFragment(String fragment, boolean fuzzy) {
+        return (root, query, criteriaBuilder) -> {
+            if (fragment == null || fragment.isBlank() || query == null) {
+                return criteriaBuilder.conjunction();
+            }
+            HibernateCriteriaBuilder builder = (HibernateCriteriaBuilder) criteriaBuilder;
+            Expression<String> pattern = bound(criteriaBuilder, "%" + escapeLike(fragment.strip()) + "%");
+
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<NoteTag> noteTag = tagged.from(NoteTag.class);
+            tagged.select(noteTag.get("id")).where(
+                    criteriaBuilder.equal(noteTag.get("note"), root),
+                    builder.ilike(noteTag.get("tag").get("label"), pattern, LIKE_ESCAPE));
+
+            Predicate contains = criteriaBuilder.or(
+                    builder.ilike(root.get("title"), pattern, LIKE_ESCAPE),
+                    criteriaBuilder.exists(tagged));
+            if (!fuzzy) {
+                return contains;
+            }
+            return criteriaBuilder.or(contains, criteriaBuilder.isTrue(criteriaBuilder.function(
+                    NoteSearchFunctions.TRIGRAM_SIMILAR, Boolean.class, root.get("id"),
+                    bound(criteriaBuilder, fragment.strip()))));
+        };
+    }
+
+    /**
+     * Orders by trigram similarity of the title or the closest tag to the fragment, then by id. Contributes no predicate.
+     */
+    public static Specification<Note> orderBySimilarity(String fragment) {
+        return (root, query, criteriaBuilder) -> {
+            if (query != null) {
+                query.orderBy(
+                        criteriaBuilder.desc(criteriaBuilder.function(
+                                NoteSearchFunctions.TRIGRAM_SIMILARITY, Double.class, root.get("id"),
+                                bound(criteriaBuilder, fragment.strip()))),
+                        criteriaBuilder.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Text predicate of a search: full-text by default, trigram search in the substring and fuzzy modes.
+     */
+    public static Specification<Note> matchesQuery(NoteSearchCriteria criteria) {
+        return criteria.isFragmentMatch()
+                ? containsFragment(criteria.getQuery(), criteria.isFuzzyMatch())
+                : matchesText(criteria.getQuery());
+    }
+
     public static Specification<Note> hasVisibility(Visibility visibility) {
         return (root, query, criteriaBuilder) -> {
             if (visibility == null) {
@@ -55,6 +148,18 @@ public class NoteSpecifications {
             String query,
             Visibility visibility,
             String tag) {
+        return searchWithFilters(owner, matchesText(query), visibility, tag);
+    }
+
+    public static Specification<Note> searchWithFilters(User owner, NoteSearchCriteria criteria) {
+        return searchWithFilters(owner, matchesQuery(criteria), criteria.getVisibility(), criteria.getTag());
+    }
+
+    private static Specification<Note> searchWithFilters(
+            User owner,
+            Specification<Note> textMatch,
+            Visibility visibility,
+            String tag) {
 
         return (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -62,32 +167,102 @@ public class NoteSpecifications {
             // Owner obligatoire
             predicates.add(criteriaBuilder.equal(root.get("owner"), owner));
 
-            // Recherche par titre
-            if (query != null && !query.isBlank()) {
-                predicates.add(criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("title")),
-                        "%" + query.toLowerCase() + "%"
-                ));
-            }
+            // Recherche plein texte sur le titre et le contenu, ou par fragment du titre et des tags
+            predicates.add(textMatch.toPredicate(root, criteriaQuery, criteriaBuilder));
 
             // Filtre par visibilité
             if (visibility != null) {
                 predicates.add(criteriaBuilder.equal(root.get("visibility"), visibility));
             }
 
-            // Filtre par tag
-            if (tag != null && !tag.isBlank()) {
-                Join<Note, NoteTag> noteTagJoin = root.join("noteTags", JoinType.LEFT);
-                Join<NoteTag, Tag> tagJoin = noteTagJoin.join("tag", JoinType.LEFT);
-                predicates.add(criteriaBuilder.equal(tagJoin.get("label"), tag));
+            // Filtre par tag (EXISTS : pas de doublons, donc pas de DISTINCT à trier)
+            if (tag != null && !tag.isBlank() && criteriaQuery != null) {
+                Subquery<Long> tagged = criteriaQuery.subquery(Long.class);
+                Root<NoteTag> noteTag = tagged.from(NoteTag.class);
+                tagged.select(noteTag.get("id")).where(
+                        criteriaBuilder.equal(noteTag.get("note"), root),
+                        criteriaBuilder.equal(noteTag.get("tag").get("label"), tag));
+                predicates.add(criteriaBuilder.exists(tagged));
             }
 
-            // Pour éviter les doublons avec les jointures
-            if (criteriaQuery != null) {
-                criteriaQuery.distinct(true);
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Notes shared with the user and matching the text and tag of the criteria. The shares are checked with
+     * an EXISTS per note, served by the (shared_with_user_id, note_id) index, so paging and sorting stay in
+     * the database whatever the number of shares.
+     */
+    public static Specification<Note> sharedWithFilters(User user, NoteSearchCriteria criteria) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Partagée avec l'utilisateur
+            Subquery<Long> shared = criteriaQuery.subquery(Long.class);
+            Root<Share> share = shared.from(Share.class);
+            shared.select(share.get("id")).where(
+                    criteriaBuilder.equal(share.get("sharedWithUser"), user),
+                    criteriaBuilder.equal(share.get("note"), root));
+            predicates.add(criteriaBuilder.exists(shared));
+
+            // Recherche plein texte sur le titre et le contenu, ou par fragment du titre et des tags
+            predicates.add(matchesQuery(criteria).toPredicate(root, criteriaQuery, criteriaBuilder));
+
+            // Filtre par tag, sans tenir compte de la casse
+            String tag = criteria.getTag();
+            if (tag != null && !tag.isBlank()) {
+                Subquery<Long> tagged = criteriaQuery.subquery(Long.class);
+                Root<NoteTag> noteTag = tagged.from(NoteTag.class);
+                tagged.select(noteTag.get("id")).where(
+                        criteriaBuilder.equal(noteTag.get("note"), root),
+                        criteriaBuilder.equal(criteriaBuilder.lower(noteTag.get("tag").get("label")), tag.toLowerCase()));
+                predicates.add(criteriaBuilder.exists(tagged));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Keyset predicate: notes strictly after the cursor in the (updatedAt, id) order, ascending or descending.
+     */
+    public static Specification<Note> seekAfter(NoteCursor cursor, boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            Path<LocalDateTime> updatedAt = root.get("updatedAt");
+            Path<Long> id = root.get("id");
+
+            if (ascending) {
+                return criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(updatedAt, cursor.updatedAt()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(updatedAt, cursor.updatedAt()),
+                                criteriaBuilder.greaterThan(id, cursor.id())));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(updatedAt, cursor.updatedAt()),
+                    criteriaBuilder.and(
+                            criteriaBuilder.equal(updatedAt, cursor.updatedAt()),
+                            criteriaBuilder.lessThan(id, cursor.id())));
+        };
+    }
+
+    // Méthodes utilitaires privées
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Search text as a bind parameter; {@code CriteriaBuilder.literal} would inline it in the SQL.
+     */
+    private static Expression<String> bound(CriteriaBuilder criteriaBuilder, String text) {
+        return ((HibernateCriteriaBuilder) criteriaBuilder).value(text);
+    }
 }
@@ -0,0 +1,79 @@
+package sn.notes.notessuitemodule.web.rest.support;
+
+import org.springframework.http.CacheControl;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.response.PageMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Validators of note responses. A note changes its updatedAt on every write, tags included, so the id and
+ * updatedAt identify one representation of it: a strong ETag that can be checked without loading the note.
+ */
+public final class NoteETags {
+    // Gardée par le client (jamais par un cache partagé) mais revalidée à chaque usage
+    public static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+    // Note publique : un cache partagé peut la garder, toujours revalidée (lien supprimé ou expiré)
+    public static final CacheControl PUBLIC_REVALIDATE = CacheControl.noCache();
+
+    private NoteETags() {
+    }
+
+    public static String of(NoteVersion version) {
+        return of(version.id(), version.updatedAt());
+    }
+
+    public static String of(NoteResponse note) {
+        return of(note.id(), note.updatedAt());
+    }
+
+    /**
+     * ETag of the HTML page of a note version, distinct from that of its JSON representation.
+     */
+    public static String ofHtml(NoteVersion version) {
+        return of(version) + "-html";
+    }
+
+    /**
+     * Last-Modified value of the note, in epoch milliseconds (updatedAt is stored in the server time zone).
+     */
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * ETag of a page of notes: digest of the version of every note listed and of the page metadata,
+     * computed from the listing before it is serialized.
+     */
+    public static String ofListing(List<NoteResponse> notes, PageMetadata metadata) {
+        StringBuilder versions = new StringBuilder();
+        for (NoteResponse note : notes) {
+            versions.append(of(note)).append(',').append(note.highlight()).append(';');
+        }
+        versions.append(metadata);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(versions.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Méthodes utilitaires privées
+
+    private static String of(Long id, LocalDateTime updatedAt) {
+        // Microsecondes : la précision des timestamps en base
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return id + "-" + Long.toHexString(micros);
+    }
+}
@@ -10,14 +10,19 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
 import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
 import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.PatchNoteContentRequest;
 import sn.notes.notessuitemodule.service.dto.UpdateNoteRequest;
 import sn.notes.notessuitemodule.service.dto.response.ApiResponse;
+import sn.notes.notessuitemodule.service.dto.response.CursorPage;
 import sn.notes.notessuitemodule.service.dto.response.PageMetadata;
 import sn.notes.notessuitemodule.service.interfaces.NoteService;
+import sn.notes.notessuitemodule.web.rest.support.NoteETags;
 
 import java.util.List;
 
@@ -43,78 +48,105 @@ public class NoteController {
     }
 
     @GetMapping
-    @Operation(summary = "Search and filter notes with pagination")
+    @Operation(summary = "Search and filter notes with pagination; query is a full-text search over title and content, or with match=substring|fuzzy a fragment of the title or of a tag (fuzzy tolerating typos), ranked by relevance unless sortBy is set; pass a cursor (empty for the first page) for keyset pagination on (updatedAt, id). Notes carry an excerpt instead of their content unless view=full")
     public ResponseEntity<ApiResponse<List<NoteResponse>>> searchNotes(
             @RequestParam(required = false) String query,
+            @RequestParam(required = false) String match,
             @RequestParam(required = false) Visibility visibility,
             @RequestParam(required = false) String tag,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "summary") String view,
             Authentication authentication) {
 
         String userEmail = authentication.getName();
 
         NoteSearchCriteria criteria = NoteSearchCriteria.builder()
                 .query(query)
+                .match(match)
                 .visibility(visibility)
                 .tag(tag)
                 .page(page)
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
+                .cursor(cursor)
+                .view(view)
                 .build();
 
+        if (criteria.isCursorMode()) {
+            CursorPage<NoteResponse> notesPage = noteService.searchNotesByCursor(criteria, userEmail);
+            return listing(notesPage.content(), PageMetadata.from(notesPage), "Notes retrieved successfully");
+        }
+
         Page<NoteResponse> notesPage = noteService.searchNotes(criteria, userEmail);
 
-        return ResponseEntity.ok(
-                ApiResponse.<List<NoteResponse>>ok()
-                        .setData(notesPage.getContent())
-                        .setMetadata(PageMetadata.from(notesPage))
-                        .setMessage("Notes retrieved successfully"));
+        return listing(notesPage.getContent(), PageMetadata.from(notesPage), "Notes retrieved successfully");
     }
 
     @GetMapping("/shared")
-    @Operation(summary = "Get notes shared with the authenticated user")
+    @Operation(summary = "Get notes shared with the authenticated user, with an excerpt instead of their content unless view=full")
     public ResponseEntity<ApiResponse<List<NoteResponse>>> getSharedNotes(
             @RequestParam(required = false) String query,
+            @RequestParam(required = false) String match,
             @RequestParam(required = false) String tag,
             @RequestParam(defaultValue = "0") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
-            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "summary") String view,
             Authentication authentication) {
 
         String userEmail = authentication.getName();
 
         NoteSearchCriteria criteria = NoteSearchCriteria.builder()
                 .query(query)
+                .match(match)
                 .tag(tag)
                 .page(page)
                 .size(size)
                 .sortBy(sortBy)
                 .sortDirection(sortDirection)
+                .cursor(cursor)
+                .view(view)
                 .build();
 
+        if (criteria.isCursorMode()) {
+            CursorPage<NoteResponse> notesPage = noteService.getSharedNotesByCursor(criteria, userEmail);
+            return listing(notesPage.content(), PageMetadata.from(notesPage), "Shared notes retrieved successfully");
+        }
+
         Page<NoteResponse> notesPage = noteService.getSharedNotes(criteria, userEmail);
 
-        return ResponseEntity.ok(
-                ApiResponse.<List<NoteResponse>>ok()
-                        .setData(notesPage.getContent())
-                        .setMetadata(PageMetadata.from(notesPage))
-                        .setMessage("Shared notes retrieved successfully"));
+        return listing(notesPage.getContent(), PageMetadata.from(notesPage), "Shared notes retrieved successfully");
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get note by ID")
+    @Operation(summary = "Get note by ID; honours If-None-Match and If-Modified-Since with a 304 when the note has not changed")
     public ResponseEntity<ApiResponse<NoteResponse>> getNoteById(
             @PathVariable Long id,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         String userEmail = authentication.getName();
+
+        // Version à jour chez le client : 304 sans charger ni sérialiser la note
+        NoteVersion version = noteService.getNoteVersion(id, userEmail);
+        if (webRequest.checkNotModified(NoteETags.of(version), NoteETags.lastModified(version.updatedAt()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(NoteETags.PRIVATE_REVALIDATE)
+                    .build();
+        }
+
         NoteResponse noteResponse = noteService.getNoteById(id, userEmail);
-        return ResponseEntity.ok(
-                ApiResponse.<NoteResponse>ok()
+        return ResponseEntity.ok()
+                .cacheControl(NoteETags.PRIVATE_REVALIDATE)
+                .eTag(NoteETags.of(noteResponse))
+                .lastModified(NoteETags.lastModified(noteResponse.updatedAt()))
+                .body(ApiResponse.<NoteResponse>ok()
                         .setData(noteResponse)
                         .setMessage("Note retrieved successfully"));
     }
@@ -133,6 +165,21 @@ public class NoteController {
                         .setMessage("Note updated successfully"));
     }
 
+    @PatchMapping("/{id}/content")
+    @Operation(summary = "Apply text edits to the content of a note; rejected with 409 if the note changed since baseUpdatedAt. Returns the new version, base of the next patch")
+    public ResponseEntity<ApiResponse<NoteVersion>> patchNoteContent(
+            @PathVariable Long id,
+            @Valid @RequestBody PatchNoteContentRequest request,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        NoteVersion version = noteService.patchNoteContent(id, request, userEmail);
+        return ResponseEntity.ok()
+                .eTag(NoteETags.of(version))
+                .body(ApiResponse.<NoteVersion>ok()
+                        .setData(version)
+                        .setMessage("Note content patched successfully"));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete note")
     public ResponseEntity<ApiResponse<Void>> deleteNote(
@@ -144,4 +191,19 @@ public class NoteController {
                 ApiResponse.<Void>ok()
                         .setMessage("Note deleted successfully"));
     }
+
+    /**
+     * Listing response with an ETag of its notes: Spring answers 304 without serializing it when If-None-Match matches.
+     */
+    private static ResponseEntity<ApiResponse<List<NoteResponse>>> listing(List<NoteResponse> notes,
+                                                                          PageMetadata metadata,
+                                                                          String message) {
+        return ResponseEntity.ok()
+                .cacheControl(NoteETags.PRIVATE_REVALIDATE)
+                .eTag(NoteETags.ofListing(notes, metadata))
+                .body(ApiResponse.<List<NoteResponse>>ok()
+                        .setData(notes)
+                        .setMetadata(metadata)
+                        .setMessage(message));
+    }
 }
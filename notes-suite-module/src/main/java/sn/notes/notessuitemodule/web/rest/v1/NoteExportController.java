@@ -0,0 +1,56 @@
+package sn.notes.notessuitemodule.web.rest.v1;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sn.notes.notessuitemodule.exception.BadRequestException;
+import sn.notes.notessuitemodule.service.interfaces.NoteExportService;
+
+@RestController
+@RequestMapping("/notes/export")
+@RequiredArgsConstructor
+@Tag(name = "Notes", description = "Notes management endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class NoteExportController {
+    private final NoteExportService noteExportService;
+
+    @GetMapping
+    @Operation(summary = "Export all notes of the authenticated user as NDJSON or as a zip of Markdown files")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return attachment("notes-export.ndjson", MediaType.APPLICATION_NDJSON,
+                    outputStream -> noteExportService.exportNdjson(userEmail, outputStream));
+        }
+        if ("zip".equalsIgnoreCase(format)) {
+            return attachment("notes-export.zip", MediaType.parseMediaType("application/zip"),
+                    outputStream -> noteExportService.exportMarkdownZip(userEmail, outputStream));
+        }
+        throw new BadRequestException("Unsupported export format: " + format);
+    }
+
+    // Méthodes utilitaires privées
+
+    private ResponseEntity<StreamingResponseBody> attachment(String fileName, MediaType contentType,
+                                                             StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(contentType)
+                .body(body);
+    }
+}
@@ -0,0 +1,80 @@
+package sn.notes.notessuitemodule.web.rest.v1;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sn.notes.notessuitemodule.service.dto.NoteImportProgress;
+import sn.notes.notessuitemodule.service.interfaces.NoteImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/notes/import")
+@RequiredArgsConstructor
+@Tag(name = "Notes", description = "Notes management endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class NoteImportController {
+    private final NoteImportService noteImportService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import notes from an NDJSON stream, one note per line; streams the progress of each chunk")
+    public ResponseEntity<StreamingResponseBody> importNdjson(
+            InputStream body,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        return streamProgress(progress -> noteImportService.importNdjson(body, userEmail, progress));
+    }
+
+    @PostMapping(consumes = {"application/zip", "application/x-zip-compressed"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import a zip of Markdown files; streams the progress of each chunk")
+    public ResponseEntity<StreamingResponseBody> importMarkdownZip(
+            InputStream body,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        return streamProgress(progress -> noteImportService.importMarkdownZip(body, userEmail, progress));
+    }
+
+    // Méthodes utilitaires privées
+
+    private ResponseEntity<StreamingResponseBody> streamProgress(ImportTask task) {
+        StreamingResponseBody responseBody = outputStream -> {
+            try {
+                task.run(progress -> writeLine(outputStream, progress));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
+    private void writeLine(OutputStream outputStream, NoteImportProgress progress) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(progress));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ImportTask {
+        void run(Consumer<NoteImportProgress> progress) throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+package sn.notes.notessuitemodule.web.rest.v1;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionDiff;
+import sn.notes.notessuitemodule.service.dto.NoteRevisionResponse;
+import sn.notes.notessuitemodule.service.dto.response.ApiResponse;
+import sn.notes.notessuitemodule.service.dto.response.PageMetadata;
+import sn.notes.notessuitemodule.service.interfaces.NoteRevisionService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/notes/{noteId}/revisions")
+@RequiredArgsConstructor
+@Tag(name = "Note revisions", description = "Note revision history endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class NoteRevisionController {
+    private final NoteRevisionService noteRevisionService;
+
+    @GetMapping
+    @Operation(summary = "List the revisions of a note, latest first")
+    public ResponseEntity<ApiResponse<List<NoteRevisionResponse>>> getRevisions(
+            @PathVariable Long noteId,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "20") Integer size,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        Page<NoteRevisionResponse> revisions = noteRevisionService.getRevisions(noteId, page, size, userEmail);
+        return ResponseEntity.ok(
+                ApiResponse.<List<NoteRevisionResponse>>ok()
+                        .setData(revisions.getContent())
+                        .setMetadata(PageMetadata.from(revisions))
+                        .setMessage("Note revisions retrieved successfully"));
+    }
+
+    @GetMapping("/{revision}")
+    @Operation(summary = "Get the content of a past revision of a note")
+    public ResponseEntity<ApiResponse<NoteRevisionResponse>> getRevision(
+            @PathVariable Long noteId,
+            @PathVariable int revision,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        NoteRevisionResponse noteRevision = noteRevisionService.getRevision(noteId, revision, userEmail);
+        return ResponseEntity.ok(
+                ApiResponse.<NoteRevisionResponse>ok()
+                        .setData(noteRevision)
+                        .setMessage("Note revision retrieved successfully"));
+    }
+
+    @GetMapping("/diff")
+    @Operation(summary = "Get the line diff between two revisions of a note, in unified format")
+    public ResponseEntity<ApiResponse<NoteRevisionDiff>> diffRevisions(
+            @PathVariable Long noteId,
+            @RequestParam int from,
+            @RequestParam int to,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        NoteRevisionDiff diff = noteRevisionService.diffRevisions(noteId, from, to, userEmail);
+        return ResponseEntity.ok(
+                ApiResponse.<NoteRevisionDiff>ok()
+                        .setData(diff)
+                        .setMessage("Note revisions compared successfully"));
+    }
+}
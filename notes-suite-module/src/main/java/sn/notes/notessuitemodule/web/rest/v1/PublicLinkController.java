@@ -4,15 +4,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import sn.notes.notessuitemodule.service.dto.NoteHtml;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
 import sn.notes.notessuitemodule.service.dto.PublicLinkResponse;
 import sn.notes.notessuitemodule.service.dto.response.ApiResponse;
 import sn.notes.notessuitemodule.service.interfaces.PublicLinkService;
+import sn.notes.notessuitemodule.web.rest.support.NoteETags;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -51,15 +58,55 @@ public class PublicLinkController {
     }
 
     @GetMapping("/p/{urlToken}")
-    @Operation(summary = "Get note by public token (no authentication required)")
-    public ResponseEntity<ApiResponse<NoteResponse>> getNoteByPublicToken(@PathVariable String urlToken) {
+    @Operation(summary = "Get note by public token (no authentication required); honours If-None-Match and If-Modified-Since")
+    public ResponseEntity<ApiResponse<NoteResponse>> getNoteByPublicToken(
+            @PathVariable String urlToken,
+            WebRequest webRequest) {
+        // Version à jour chez le client : 304 sans sérialiser la note, lue en cache
+        NoteVersion version = publicLinkService.getNoteVersionByPublicToken(urlToken);
+        if (webRequest.checkNotModified(NoteETags.of(version), NoteETags.lastModified(version.updatedAt()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(NoteETags.PUBLIC_REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+
         NoteResponse noteResponse = publicLinkService.getNoteByPublicToken(urlToken);
-        return ResponseEntity.ok(
-                ApiResponse.<NoteResponse>ok()
+        return ResponseEntity.ok()
+                .cacheControl(NoteETags.PUBLIC_REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(NoteETags.of(noteResponse))
+                .lastModified(NoteETags.lastModified(noteResponse.updatedAt()))
+                .body(ApiResponse.<NoteResponse>ok()
                         .setData(noteResponse)
                         .setMessage("Note retrieved successfully"));
     }
 
+    @GetMapping(value = "/p/{urlToken}", produces = MediaType.TEXT_HTML_VALUE)
+    @Operation(summary = "Get the note of a public token rendered as an HTML page (Accept: text/html, no authentication required)")
+    public ResponseEntity<String> getNoteHtmlByPublicToken(
+            @PathVariable String urlToken,
+            WebRequest webRequest) {
+        NoteVersion version = publicLinkService.getNoteVersionByPublicToken(urlToken);
+        if (webRequest.checkNotModified(NoteETags.ofHtml(version), NoteETags.lastModified(version.updatedAt()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(NoteETags.PUBLIC_REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+
+        NoteHtml noteHtml = publicLinkService.getNoteHtmlByPublicToken(urlToken);
+        return ResponseEntity.ok()
+                .cacheControl(NoteETags.PUBLIC_REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(NoteETags.ofHtml(noteHtml.version()))
+                .lastModified(NoteETags.lastModified(noteHtml.version().updatedAt()))
+                // Le HTML est déjà assaini ; la page ne charge de toute façon ni script ni ressource tierce hors images
+                .header("Content-Security-Policy", "default-src 'none'; img-src http: https:; base-uri 'none'; form-action 'none'")
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(noteHtml.html());
+    }
+
     @DeleteMapping("/public-links/{id}")
     @Operation(summary = "Delete a public link")
     @SecurityRequirement(name = "bearerAuth")
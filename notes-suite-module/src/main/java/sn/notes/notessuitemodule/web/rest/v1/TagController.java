@@ -0,0 +1,48 @@
+package sn.notes.notessuitemodule.web.rest.v1;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+import sn.notes.notessuitemodule.service.dto.response.ApiResponse;
+import sn.notes.notessuitemodule.service.interfaces.TagService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tags")
+@RequiredArgsConstructor
+@Tag(name = "Tags", description = "Tag endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class TagController {
+    private final TagService tagService;
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Complete a tag prefix with the user's own tags, most used first")
+    public ResponseEntity<ApiResponse<List<TagUsage>>> suggestTags(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") Integer limit,
+            Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<TagUsage> suggestions = tagService.suggestTags(prefix, limit, userEmail);
+        return ResponseEntity.ok(
+                ApiResponse.<List<TagUsage>>ok()
+                        .setData(suggestions)
+                        .setMessage("Tag suggestions retrieved successfully"));
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get the number of notes of the user per tag, most used first")
+    public ResponseEntity<ApiResponse<List<TagUsage>>> getTagFacets(Authentication authentication) {
+        String userEmail = authentication.getName();
+        List<TagUsage> facets = tagService.getTagFacets(userEmail);
+        return ResponseEntity.ok(
+                ApiResponse.<List<TagUsage>>ok()
+                        .setData(facets)
+                        .setMessage("Tag facets retrieved successfully"));
+    }
+}
@@ -0,0 +1,2 @@
+-- Équivalent H2 des fonctions pg_trgm utilisées par la recherche (profil test)
+CREATE ALIAS IF NOT EXISTS WORD_SIMILARITY FOR 'sn.notes.notessuitemodule.repository.support.TrigramSimilarity.wordSimilarity';
@@ -0,0 +1,44 @@
+package sn.notes.notessuitemodule.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import sn.notes.notessuitemodule.service.render.MarkdownRenderer;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CPU cost of rendering generated Markdown bodies of several sizes to sanitized HTML with {@link MarkdownRenderer},
+ * the cost a public note pays once per edit instead of once per view.
+ * Run with {@code mvn test -Dtest=MarkdownRenderBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MarkdownRenderBenchmark {
+    private static final int[] SIZES = {1_024, 4_096, 16_384, 50_000};
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+
+    private final MarkdownRenderer markdownRenderer = new MarkdownRenderer();
+
+    @Test
+    void measureRenderTime() {
+        System.out.printf("%-8s %-12s %-16s %-12s%n", "chars", "html chars", "render us/note", "Mchars/s");
+        for (int size : SIZES) {
+            String content = MarkdownSamples.markdown(size, new Random(size));
+            String html = markdownRenderer.render(content);
+            assertTrue(html.contains("<h2>"));
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                markdownRenderer.render(content);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                markdownRenderer.render(content);
+            }
+            double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ROUNDS;
+
+            System.out.printf("%-8d %-12d %-16.1f %-12.1f%n", content.length(), html.length(), micros, content.length() / micros);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sn.notes.notessuitemodule.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generated Markdown note bodies for the benchmarks: headings, task lists, paragraphs and code blocks, like a real note.
+ */
+final class MarkdownSamples {
+    private static final String[] WORDS = {
+            "release", "meeting", "backend", "review", "deploy", "customer", "invoice", "schema", "index",
+            "query", "cache", "latency", "budget", "roadmap", "sprint", "feature", "the", "a", "with", "for",
+            "and", "to", "of", "is", "on", "before", "after", "should", "must", "check", "update", "notes"
+    };
+
+    private MarkdownSamples() {
+    }
+
+    static String markdown(int length, Random random) {
+        StringBuilder text = new StringBuilder(length + 200);
+        while (text.length() < length) {
+            switch (random.nextInt(4)) {
+                case 0 -> text.append("## ").append(sentence(random, 4)).append("\n\n");
+                case 1 -> {
+                    for (int i = 0; i < 3; i++) {
+                        text.append("- [ ] ").append(sentence(random, 6)).append('\n');
+                    }
+                    text.append('\n');
+                }
+                case 2 -> text.append("```sql\nSELECT id, title FROM notes WHERE owner_id = ")
+                        .append(random.nextInt(10_000)).append(";\n```\n\n");
+                default -> text.append(sentence(random, 25)).append(" **").append(WORDS[random.nextInt(WORDS.length)])
+                        .append("** ").append(sentence(random, 15)).append("\n\n");
+            }
+        }
+        return text.substring(0, length);
+    }
+
+    // Méthodes utilitaires privées
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package sn.notes.notessuitemodule.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import sn.notes.notessuitemodule.domain.support.NoteContentCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compression ratio and CPU cost of {@link NoteContentCodec} on generated Markdown bodies of several sizes.
+ * Run with {@code mvn test -Dtest=NoteContentCompressionBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class NoteContentCompressionBenchmark {
+    private static final int[] SIZES = {4_096, 16_384, 50_000};
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+
+    @Test
+    void measureRatioAndCpuCost() {
+        System.out.printf("%-8s %-10s %-14s %-16s %-16s%n", "chars", "ratio", "saved", "deflate us/note", "inflate us/note");
+        for (int size : SIZES) {
+            String content = MarkdownSamples.markdown(size, new Random(size));
+            byte[] deflated = NoteContentCodec.deflate(content);
+            assertEquals(content, NoteContentCodec.inflate(deflated));
+
+            int utf8Length = content.getBytes(StandardCharsets.UTF_8).length;
+            double deflateMicros = measure(() -> NoteContentCodec.deflate(content));
+            double inflateMicros = measure(() -> NoteContentCodec.inflate(deflated));
+
+            System.out.printf("%-8d %-10s %-14s %-16.1f %-16.1f%n",
+                    content.length(),
+                    String.format("%.2f", (double) utf8Length / deflated.length),
+                    String.format("%d%%", 100 - 100 * deflated.length / utf8Length),
+                    deflateMicros,
+                    inflateMicros);
+        }
+    }
+
+    // Méthodes utilitaires privées
+
+    private static double measure(Runnable codec) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            codec.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            codec.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ROUNDS;
+    }
+}
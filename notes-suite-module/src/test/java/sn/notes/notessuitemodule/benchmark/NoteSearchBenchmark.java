@@ -0,0 +1,128 @@
+package sn.notes.notessuitemodule.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.repository.UserRepository;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
+import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
+import sn.notes.notessuitemodule.service.interfaces.NoteImportService;
+import sn.notes.notessuitemodule.service.search.LuceneNoteSearchEngine;
+import sn.notes.notessuitemodule.service.specification.NoteSpecifications;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Compares text searches per second between the embedded Lucene index and the JPA query
+ * (LIKE on the test database), over a library of {@value #NOTE_COUNT} notes.
+ * Run with {@code mvn test -Dtest=NoteSearchBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest(properties = {
+        "notes.search.engine=lucene",
+        "notes.search.lucene.directory=target/benchmark-search-index",
+        "notes.search.lucene.rebuild-on-startup=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class NoteSearchBenchmark {
+    private static final int NOTE_COUNT = 20_000;
+    private static final int WORDS_PER_NOTE = 120;
+    private static final int VOCABULARY_SIZE = 2_000;
+    private static final int WARMUP_SEARCHES = 200;
+    private static final int MEASURED_SEARCHES = 1_000;
+    private static final List<String> QUERIES = List.of("budget", "meeting", "roadmap", "invoice", "kubernetes");
+
+    @Autowired
+    private NoteImportService noteImportService;
+
+    @Autowired
+    private LuceneNoteSearchEngine searchEngine;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compareSearchesPerSecond() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .email("bench-search@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        seed(owner.getEmail());
+        searchEngine.repair();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        double database = measure(query -> readOnly.executeWithoutResult(status -> noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, query, null, null)
+                        .and(NoteSpecifications.orderByRelevance(query)),
+                PageRequest.of(0, 20),
+                false)));
+        double lucene = measure(query -> searchEngine.search(owner, NoteSearchCriteria.builder()
+                .query(query)
+                .size(20)
+                .build()));
+
+        System.out.printf("Search over %d notes - database: %.0f searches/s, lucene: %.0f searches/s (x%.2f)%n",
+                NOTE_COUNT, database, lucene, lucene / database);
+    }
+
+    private double measure(Consumer<String> search) {
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            search.accept(QUERIES.get(i % QUERIES.size()));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_SEARCHES; i++) {
+            search.accept(QUERIES.get(i % QUERIES.size()));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return MEASURED_SEARCHES / (elapsed / 1_000_000_000.0);
+    }
+
+    private void seed(String userEmail) throws Exception {
+        // Vocabulaire de 2 000 mots : chaque mot recherché apparaît dans environ 6 % des notes
+        List<String> vocabulary = new ArrayList<>(QUERIES);
+        for (int i = 0; vocabulary.size() < VOCABULARY_SIZE; i++) {
+            vocabulary.add("w" + Integer.toString(i * 7919 + 1000, 36));
+        }
+        Random random = new Random(42);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_NOTE; w++) {
+                content.append(vocabulary.get(random.nextInt(vocabulary.size()))).append(' ');
+            }
+            String title = "Note " + i + " " + vocabulary.get(random.nextInt(vocabulary.size()));
+            CreateNoteRequest request = new CreateNoteRequest(title, content.toString(), List.of("tag" + i % 10));
+            ndjson.write(objectMapper.writeValueAsBytes(request));
+            ndjson.write('\n');
+        }
+
+        noteImportService.importNdjson(new ByteArrayInputStream(ndjson.toByteArray()), userEmail, progress -> { });
+    }
+}
@@ -0,0 +1,88 @@
+package sn.notes.notessuitemodule.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import sn.notes.notessuitemodule.security.filters.JwtAuthenticationFilter;
+import sn.notes.notessuitemodule.service.dto.RegisterRequest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares authenticated requests per second with and without {@code jwt.stateless-principal}.
+ * Run with {@code mvn test -Dtest=StatelessPrincipalBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StatelessPrincipalBenchmark {
+    private static final int WARMUP_REQUESTS = 1_000;
+    private static final int MEASURED_REQUESTS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Test
+    void compareRequestsPerSecond() throws Exception {
+        String token = registerAndGetToken();
+
+        double withLookup = measure(token, false);
+        double stateless = measure(token, true);
+
+        System.out.printf("GET /api/v1/notes - user lookup: %.0f req/s, stateless principal: %.0f req/s (x%.2f)%n",
+                withLookup, stateless, stateless / withLookup);
+    }
+
+    private double measure(String token, boolean statelessPrincipal) throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessPrincipal", statelessPrincipal);
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            callListNotes(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            callListNotes(token);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return MEASURED_REQUESTS / (elapsed / 1_000_000_000.0);
+    }
+
+    private void callListNotes(String token) throws Exception {
+        mockMvc.perform(get("/api/v1/notes")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String registerAndGetToken() throws Exception {
+        RegisterRequest request = new RegisterRequest("bench@example.com", "password123");
+        String body = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JsonNode json = objectMapper.readTree(body);
+        return json.path("data").path("accessToken").asText();
+    }
+}
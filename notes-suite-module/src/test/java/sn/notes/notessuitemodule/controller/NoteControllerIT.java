@@ -0,0 +1,358 @@
+package sn.notes.notessuitemodule.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import sn.notes.notessuitemodule.repository.support.PublicLinkViewCounter;
+import sn.notes.notessuitemodule.service.cache.PublicNoteCache;
+import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
+import sn.notes.notessuitemodule.service.dto.RegisterRequest;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sans @Transactional : chaque requête lit ses versions dans sa propre transaction, comme en production
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class NoteControllerIT {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PublicLinkViewCounter publicLinkViewCounter;
+
+    @Autowired
+    private PublicNoteCache publicNoteCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private String authorization;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        RegisterRequest request = new RegisterRequest(UUID.randomUUID() + "@example.com", "password123");
+        JsonNode response = readBody(mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn());
+        authorization = "Bearer " + response.path("data").path("accessToken").asText();
+    }
+
+    @Test
+    void getNoteById_WithCurrentETag_ShouldReturnNotModifiedUntilNoteChanges() throws Exception {
+        // Given
+        long id = createNote("Groceries", List.of("home"));
+        String eTag = mockMvc.perform(get("/api/v1/notes/" + id).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        MvcResult notModified = mockMvc.perform(get("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentLength());
+
+        // Seuls les tags changent : la version de la note change aussi
+        mockMvc.perform(put("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("tags", List.of("home", "weekly")))))
+                .andExpect(status().isOk());
+        String newETag = mockMvc.perform(get("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+
+        // Les mêmes tags dans un autre ordre : la note ne change pas
+        mockMvc.perform(put("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("tags", List.of("weekly", "home")))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, newETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patchNoteContent_ShouldChainVersionsAndRejectStaleBase() throws Exception {
+        // Given
+        JsonNode note = createNoteBody("Draft", List.of());
+        String created = note.path("updatedAt").asText();
+
+        // When
+        JsonNode version = readBody(patchContent(note.path("id").asLong(), created, List.of(Map.of("offset", 2, "deleteCount", 5, "insert", "Plan")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()).path("data");
+        patchContent(note.path("id").asLong(), version.path("updatedAt").asText(), List.of(Map.of("offset", 6, "deleteCount", 0, "insert", " v2")))
+                .andExpect(status().isOk());
+
+        // Then
+        patchContent(note.path("id").asLong(), created, List.of(Map.of("offset", 0, "deleteCount", 1, "insert", "")))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/v1/notes/" + note.path("id").asLong()).header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.contentMd").value("# Plan v2"));
+    }
+
+    @Test
+    void patchNoteContent_PreflightFromWebApp_ShouldBeAllowed() throws Exception {
+        // When & Then
+        mockMvc.perform(options("/api/v1/notes/1/content")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:4200")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization,content-type"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:4200"))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, containsString("PATCH")));
+    }
+
+    @Test
+    void revisions_ShouldListRebuildAndDiffContentChanges() throws Exception {
+        // Given
+        JsonNode note = createNoteBody("Draft", List.of());
+        long id = note.path("id").asLong();
+        patchContent(id, note.path("updatedAt").asText(), List.of(Map.of("offset", 7, "deleteCount", 0, "insert", "\n\n- milk\n")))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/notes/" + id + "/revisions").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].revision").value(2))
+                .andExpect(jsonPath("$.data[0].contentMd").doesNotExist());
+        mockMvc.perform(get("/api/v1/notes/" + id + "/revisions/1").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.contentMd").value("# Draft"));
+        mockMvc.perform(get("/api/v1/notes/" + id + "/revisions/diff")
+                        .param("from", "1")
+                        .param("to", "2")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.additions").value(3))
+                .andExpect(jsonPath("$.data.deletions").value(1))
+                .andExpect(jsonPath("$.data.diff").value(
+                        "@@ -1,1 +1,3 @@\n-# Draft\n\\ No newline at end of file\n+# Draft\n+\n+- milk\n"));
+        mockMvc.perform(get("/api/v1/notes/" + id + "/revisions/3").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void searchNotes_WithCurrentETag_ShouldReturnNotModifiedUntilListChanges() throws Exception {
+        // Given
+        createNote("First", List.of());
+        String eTag = mockMvc.perform(get("/api/v1/notes").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/notes")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        createNote("Second", List.of());
+        mockMvc.perform(get("/api/v1/notes")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getNoteByPublicToken_WithValidators_ShouldReturnNotModified() throws Exception {
+        // Given
+        long id = createNote("Public", List.of());
+        String urlToken = readBody(mockMvc.perform(post("/api/v1/notes/" + id + "/share/public")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data").path("urlToken").asText();
+        MvcResult result = mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/p/" + urlToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/p/" + urlToken)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getNoteByPublicToken_ShouldServeChangesAndStopOnceLinkDeleted() throws Exception {
+        // Given : la note publique est en cache
+        long id = createNote("Public", List.of());
+        JsonNode link = readBody(mockMvc.perform(post("/api/v1/notes/" + id + "/share/public")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data");
+        String urlToken = link.path("urlToken").asText();
+        mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(jsonPath("$.data.title").value("Public"));
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/notes/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("title", "Renamed"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(jsonPath("$.data.title").value("Renamed"));
+
+        mockMvc.perform(delete("/api/v1/public-links/" + link.path("id").asLong())
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getNoteByPublicToken_AcceptingHtml_ShouldServeSanitizedPage() throws Exception {
+        // Given
+        JsonNode note = createNoteBody("Public <b>", List.of());
+        patchContent(note.path("id").asLong(), note.path("updatedAt").asText(),
+                List.of(Map.of("offset", 0, "deleteCount", 0, "insert", "<script>alert(1)</script>\n\n**bold**\n\n")))
+                .andExpect(status().isOk());
+        String urlToken = readBody(mockMvc.perform(post("/api/v1/notes/" + note.path("id").asLong() + "/share/public")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data").path("urlToken").asText();
+
+        // When
+        MvcResult page = mockMvc.perform(get("/api/v1/p/" + urlToken)
+                        .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/html;charset=UTF-8"))
+                .andExpect(header().exists("Content-Security-Policy"))
+                .andReturn();
+
+        // Then
+        String html = page.getResponse().getContentAsString();
+        assertTrue(page.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT));
+        assertTrue(html.contains("<title>Public &lt;b&gt;</title>"));
+        assertTrue(html.contains("<strong>bold</strong>"));
+        assertFalse(html.contains("<script>"));
+        mockMvc.perform(get("/api/v1/p/" + urlToken)
+                        .header(HttpHeaders.ACCEPT, MediaType.TEXT_HTML_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, page.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+        // Les autres clients gardent la représentation JSON, avec un ETag distinct
+        mockMvc.perform(get("/api/v1/p/" + urlToken).header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Public <b>"));
+        mockMvc.perform(get("/api/v1/p/" + urlToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, page.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title").value("Public <b>"));
+        mockMvc.perform(get("/api/v1/p/unknown-token").header(HttpHeaders.ACCEPT, "text/html,*/*;q=0.8"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getNoteByPublicToken_ShouldCountEveryView() throws Exception {
+        // Given
+        long id = createNote("Public", List.of());
+        String urlToken = readBody(mockMvc.perform(post("/api/v1/notes/" + id + "/share/public")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data").path("urlToken").asText();
+
+        // When : une lecture complète, une revalidation et une page HTML
+        String eTag = mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/p/" + urlToken).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/p/" + urlToken).header(HttpHeaders.ACCEPT, MediaType.TEXT_HTML_VALUE))
+                .andExpect(status().isOk());
+
+        // Then
+        publicLinkViewCounter.flush();
+        mockMvc.perform(get("/api/v1/notes/" + id + "/public-links").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(jsonPath("$.data[0].viewCount").value(3));
+    }
+
+    @Test
+    void getNoteByPublicToken_RevalidatedAfterEviction_ShouldCacheNoteAgain() throws Exception {
+        // Given : la note est lue puis sort du cache
+        long id = createNote("Public", List.of());
+        String urlToken = readBody(mockMvc.perform(post("/api/v1/notes/" + id + "/share/public")
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data").path("urlToken").asText();
+        String eTag = mockMvc.perform(get("/api/v1/p/" + urlToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(id));
+        assertNull(publicNoteCache.getIfPresent(urlToken));
+
+        // When
+        mockMvc.perform(get("/api/v1/p/" + urlToken).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Then : les revalidations suivantes sont servies depuis le cache
+        assertNotNull(publicNoteCache.getIfPresent(urlToken));
+    }
+
+    // Méthodes utilitaires privées
+
+    private long createNote(String title, List<String> tags) throws Exception {
+        return createNoteBody(title, tags).path("id").asLong();
+    }
+
+    private JsonNode createNoteBody(String title, List<String> tags) throws Exception {
+        CreateNoteRequest request = new CreateNoteRequest(title, "# " + title, tags);
+        return readBody(mockMvc.perform(post("/api/v1/notes")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn()).path("data");
+    }
+
+    private ResultActions patchContent(long id, String baseUpdatedAt, List<Map<String, Object>> edits) throws Exception {
+        return mockMvc.perform(patch("/api/v1/notes/" + id + "/content")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("baseUpdatedAt", baseUpdatedAt, "edits", edits))));
+    }
+
+    private JsonNode readBody(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,142 @@
+package sn.notes.notessuitemodule.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.PublicLink;
+import sn.notes.notessuitemodule.domain.Share;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.repository.support.ExpiredPublicLinkSweeper;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.event.PublicLinkDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(DatabasePlatform.class)
+public class ExpiredPublicLinkSweeperTest {
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExpiredPublicLinkSweeper sweeper;
+    private User owner;
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new ExpiredPublicLinkSweeper(jdbcTemplate, transactionManager, databasePlatform, eventPublisher, meterRegistry);
+        owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        reader = entityManager.persist(User.builder()
+                .email("reader@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+    }
+
+    @Test
+    void sweep_ShouldDeleteExpiredLinksAndRecomputeVisibility() {
+        // Given
+        LocalDateTime past = LocalDateTime.now().minusDays(1);
+        Note privateAgain = publicNote("Expired");
+        Note sharedAgain = publicNote("Shared");
+        Note stillPublic = publicNote("Still public");
+        link(privateAgain, "expired", past);
+        link(sharedAgain, "expired-shared", past);
+        entityManager.persist(Share.builder().note(sharedAgain).sharedWithUser(reader).build());
+        link(stillPublic, "expired-other", past);
+        link(stillPublic, "valid", LocalDateTime.now().plusDays(1));
+        link(stillPublic, "forever", null);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        long removed = sweeper.sweep();
+
+        // Then
+        assertEquals(3, removed);
+        assertEquals(List.of("forever", "valid"), jdbcTemplate.queryForList(
+                "SELECT url_token FROM public_links ORDER BY url_token", Map.of(), String.class));
+        assertEquals("PRIVATE", visibilityOf(privateAgain));
+        assertEquals("SHARED", visibilityOf(sharedAgain));
+        assertEquals("PUBLIC", visibilityOf(stillPublic));
+        verify(eventPublisher).publishEvent(new PublicLinkDeletedEvent("expired"));
+        assertEquals(3, meterRegistry.summary("notes.public-links.expired.removed").totalAmount());
+        assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void sweep_ShouldDeleteInBatches() {
+        // Given
+        Note note = publicNote("Many links");
+        for (int i = 0; i < 1_201; i++) {
+            link(note, "expired-" + i, LocalDateTime.now().minusMinutes(1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        long removed = sweeper.sweep();
+
+        // Then
+        assertEquals(1_201, removed);
+        assertEquals("PRIVATE", visibilityOf(note));
+    }
+
+    // Méthodes utilitaires privées
+
+    private Note publicNote(String title) {
+        return entityManager.persist(Note.builder()
+                .title(title)
+                .contentMd("# " + title)
+                .visibility(Visibility.PUBLIC)
+                .owner(owner)
+                .build());
+    }
+
+    private void link(Note note, String urlToken, LocalDateTime expiresAt) {
+        entityManager.persist(PublicLink.builder().note(note).urlToken(urlToken).expiresAt(expiresAt).build());
+    }
+
+    private String visibilityOf(Note note) {
+        return jdbcTemplate.queryForObject("SELECT visibility FROM notes WHERE id = :id",
+                Map.of("id", note.getId()), String.class);
+    }
+}
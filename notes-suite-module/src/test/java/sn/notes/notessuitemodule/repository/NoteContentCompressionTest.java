@@ -0,0 +1,145 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.repository.support.NoteContentCompressionJob;
+import sn.notes.notessuitemodule.repository.support.NoteContentCompressor;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.dto.NoteIndexRow;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.specification.NoteSpecifications;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "notes.storage.compression.enabled=true",
+        "notes.storage.compression.min-length=200"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({NoteContentCompressor.class, DatabasePlatform.class})
+public class NoteContentCompressionTest {
+    private static final String LONG_CONTENT = "## Meeting notes\n\n" + "- Review the **release** checklist\n".repeat(20);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteContentCompressor noteContentCompressor;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+    }
+
+    @Test
+    void persist_ShouldCompressLongContentOnlyAndReadItBack() {
+        // Given
+        Note longNote = entityManager.persist(note("Long", LONG_CONTENT));
+        Note shortNote = entityManager.persist(note("Short", "# Short"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Map<String, Object> longRow = columnsOf(longNote.getId());
+        Map<String, Object> shortRow = columnsOf(shortNote.getId());
+        Note reloaded = noteRepository.findById(longNote.getId()).orElseThrow();
+
+        // Then
+        assertNull(longRow.get("content_md"));
+        assertTrue(((byte[]) longRow.get("content_deflated")).length < LONG_CONTENT.length() / 4);
+        assertEquals("Meeting notes Review the release checklist", reloaded.getExcerpt().substring(0, 42));
+        assertEquals(LONG_CONTENT, reloaded.getContentMd());
+        assertEquals("# Short", shortRow.get("content_md"));
+        assertNull(shortRow.get("content_deflated"));
+    }
+
+    @Test
+    void projections_ShouldDecompressContentWhenRequested() {
+        // Given
+        Note longNote = entityManager.persist(note("Long", LONG_CONTENT));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<NoteResponse> full = noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, null, null, null), Sort.unsorted(), 10, true);
+        List<NoteIndexRow> indexRows = noteRepository.findIndexRowsByIdIn(List.of(longNote.getId()));
+
+        // Then
+        assertEquals(LONG_CONTENT, full.get(0).contentMd());
+        assertEquals(LONG_CONTENT, indexRows.get(0).contentMd());
+    }
+
+    @Test
+    void compressExisting_ShouldCompressClearRowsWithoutChangingTheirVersion() {
+        // Given : une note écrite en clair avant l'activation de la compression
+        Note note = entityManager.persist(note("Legacy", "# Short"));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE notes SET content_md = :content WHERE id = :id",
+                Map.of("content", LONG_CONTENT, "id", note.getId()));
+        Object updatedAt = columnsOf(note.getId()).get("updated_at");
+        entityManager.clear();
+
+        NoteContentCompressionJob job = new NoteContentCompressionJob(jdbcTemplate, noteContentCompressor, databasePlatform);
+
+        // When
+        long compressed = job.compressExisting();
+
+        // Then
+        Map<String, Object> row = columnsOf(note.getId());
+        assertEquals(1, compressed);
+        assertNull(row.get("content_md"));
+        assertEquals(updatedAt, row.get("updated_at"));
+        assertEquals(LONG_CONTENT, noteRepository.findById(note.getId()).orElseThrow().getContentMd());
+        assertEquals(0, job.compressExisting());
+    }
+
+    // Méthodes utilitaires privées
+
+    private Note note(String title, String content) {
+        return Note.builder()
+                .title(title)
+                .contentMd(content)
+                .owner(owner)
+                .build();
+    }
+
+    private Map<String, Object> columnsOf(Long id) {
+        return jdbcTemplate.queryForMap("SELECT content_md, content_deflated, updated_at FROM notes WHERE id = :id",
+                Map.of("id", id));
+    }
+}
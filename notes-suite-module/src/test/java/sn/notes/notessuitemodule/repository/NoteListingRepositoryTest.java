@@ -0,0 +1,259 @@
+package sn.notes.notessuitemodule.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.NoteTag;
+import sn.notes.notessuitemodule.domain.Share;
+import sn.notes.notessuitemodule.domain.Tag;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.specification.NoteSpecifications;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class NoteListingRepositoryTest {
+    private static final int NOTE_COUNT = 30;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private User owner;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        Tag work = entityManager.persist(Tag.builder().label("work").build());
+        Tag todo = entityManager.persist(Tag.builder().label("todo").build());
+
+        for (int i = 0; i < NOTE_COUNT; i++) {
+            Note note = entityManager.persist(Note.builder()
+                    .title("Note " + i)
+                    .contentMd("## Content " + i + "\n\nSee [the docs](https://example.com) for **details**.")
+                    .visibility(Visibility.PRIVATE)
+                    .owner(owner)
+                    .build());
+            entityManager.persist(NoteTag.builder().note(note).tag(work).build());
+            entityManager.persist(NoteTag.builder().note(note).tag(todo).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findListing_ShouldLoadPageInFixedNumberOfStatements() {
+        // When
+        Page<NoteResponse> page = noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, null, null, "work"),
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "updatedAt")),
+                false);
+
+        // Then
+        assertEquals(20, page.getContent().size());
+        assertEquals(NOTE_COUNT, page.getTotalElements());
+        page.getContent().forEach(note -> {
+            assertEquals("owner@example.com", note.ownerEmail());
+            assertEquals(List.of("work", "todo"), note.tags());
+            assertNull(note.contentMd());
+            assertTrue(note.excerpt().matches("Content \\d+ See the docs for details\\."), note.excerpt());
+        });
+
+        // Lignes + tags + comptage, quel que soit le nombre de notes de la page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findListing_WithLimit_ShouldNotCount() {
+        // When
+        List<NoteResponse> notes = noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, null, null, null),
+                Sort.by(Sort.Direction.DESC, "updatedAt", "id"),
+                NOTE_COUNT,
+                false);
+
+        // Then
+        assertEquals(NOTE_COUNT, notes.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findListing_ByRelevance_ShouldMatchContentAndRankTitleFirst() {
+        // Given
+        Note inContent = entityManager.persist(Note.builder()
+                .title("Weekly meeting")
+                .contentMd("Discuss the budget")
+                .owner(owner)
+                .build());
+        Note inTitle = entityManager.persist(Note.builder()
+                .title("Budget 2026")
+                .contentMd("Numbers")
+                .owner(owner)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Page<NoteResponse> page = noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, "budget", null, null)
+                        .and(NoteSpecifications.orderByRelevance("budget")),
+                PageRequest.of(0, 20),
+                false);
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(inTitle.getId(), inContent.getId()),
+                page.getContent().stream().map(NoteResponse::id).toList());
+    }
+
+    @Test
+    void findListing_BySubstring_ShouldMatchMidWordInTitleAndTags() {
+        // Given
+        Note inTitle = entityManager.persist(Note.builder()
+                .title("Re-invoicing 100%")
+                .contentMd("Numbers")
+                .owner(owner)
+                .build());
+        Note inTag = entityManager.persist(Note.builder()
+                .title("Customer call")
+                .contentMd("Numbers")
+                .owner(owner)
+                .build());
+        entityManager.persist(NoteTag.builder()
+                .note(inTag)
+                .tag(entityManager.persist(Tag.builder().label("invoices").build()))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Long> matches = searchIds("INVOI", NoteSearchCriteria.MATCH_SUBSTRING);
+
+        // Then
+        assertEquals(List.of(inTag.getId(), inTitle.getId()), matches);
+        assertEquals(List.of(inTitle.getId()), searchIds("0%", NoteSearchCriteria.MATCH_SUBSTRING));
+        assertEquals(List.of(), searchIds("invoicng", NoteSearchCriteria.MATCH_SUBSTRING));
+    }
+
+    @Test
+    void findListing_ByFuzzyFragment_ShouldTolerateTypos() {
+        // Given
+        Note note = entityManager.persist(Note.builder()
+                .title("Re-invoicing")
+                .contentMd("Numbers")
+                .owner(owner)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Long> matches = searchIds("invoicng", NoteSearchCriteria.MATCH_FUZZY);
+
+        // Then
+        assertEquals(List.of(note.getId()), matches);
+    }
+
+    @Test
+    void findListing_SharedWithUser_ShouldFilterAndPageInDatabase() {
+        // Given : 3 notes partagées, dont une avec le tag "Urgent"
+        User reader = entityManager.persist(User.builder()
+                .email("reader@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        Tag urgent = entityManager.persist(Tag.builder().label("Urgent").build());
+        List<Note> notes = entityManager.getEntityManager()
+                .createQuery("SELECT n FROM Note n ORDER BY n.id", Note.class)
+                .setMaxResults(3)
+                .getResultList();
+        notes.forEach(note -> entityManager.persist(Share.builder().note(note).sharedWithUser(reader).build()));
+        entityManager.persist(NoteTag.builder().note(notes.get(1)).tag(urgent).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        // When
+        Page<NoteResponse> page = noteRepository.findListing(
+                NoteSpecifications.sharedWithFilters(reader, new NoteSearchCriteria()),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "id")),
+                false);
+        Page<NoteResponse> tagged = noteRepository.findListing(
+                NoteSpecifications.sharedWithFilters(reader, NoteSearchCriteria.builder().tag("urgent").build()),
+                PageRequest.of(0, 2),
+                false);
+
+        // Then
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(notes.get(0).getId(), notes.get(1).getId()),
+                page.getContent().stream().map(NoteResponse::id).toList());
+        assertEquals(List.of(notes.get(1).getId()), tagged.getContent().stream().map(NoteResponse::id).toList());
+        // Lignes + tags + comptage pour la première page, lignes + tags pour la seconde, incomplète donc sans comptage
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findListing_WithContent_ShouldReturnFullBody() {
+        // When
+        List<NoteResponse> notes = noteRepository.findListing(
+                NoteSpecifications.searchWithFilters(owner, null, null, "work"),
+                Sort.by(Sort.Direction.DESC, "updatedAt", "id"),
+                5,
+                true);
+
+        // Then
+        assertEquals(5, notes.size());
+        notes.forEach(note -> {
+            assertTrue(note.contentMd().startsWith("## Content "));
+            assertNotNull(note.excerpt());
+        });
+    }
+
+    // Méthodes utilitaires privées
+
+    private List<Long> searchIds(String fragment, String match) {
+        NoteSearchCriteria criteria = NoteSearchCriteria.builder().query(fragment).match(match).build();
+        return noteRepository.findListing(
+                        NoteSpecifications.searchWithFilters(owner, criteria)
+                                .and(NoteSpecifications.orderBySimilarity(fragment)),
+                        PageRequest.of(0, 20),
+                        false)
+                .getContent().stream()
+                .map(NoteResponse::id)
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.NoteRevision;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.revision.NoteRevisionStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "notes.revisions.snapshot-interval=5")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(NoteRevisionStore.class)
+public class NoteRevisionStoreTest {
+    private static final String BODY = "## Meeting notes\n\n" + "- Review the **release** checklist\n".repeat(40);
+
+    @Autowired
+    private NoteRevisionStore noteRevisionStore;
+
+    @Autowired
+    private NoteRevisionRepository noteRevisionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private Note note;
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        note = entityManager.persist(Note.builder()
+                .title("Meeting")
+                .contentMd(BODY)
+                .owner(owner)
+                .build());
+        noteRevisionStore.record(note, null);
+    }
+
+    @Test
+    void record_ShouldStoreSmallDeltasWithASnapshotEveryInterval() {
+        // Given
+        List<String> contents = new ArrayList<>(List.of(BODY));
+
+        // When
+        for (int i = 1; i <= 11; i++) {
+            contents.add(write(contents.get(i - 1).replaceFirst("- Review", "- Done " + i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then : instantanés aux révisions 1, 6 et 11, deltas de quelques octets entre les deux
+        List<NoteRevision> revisions = noteRevisionRepository.findByNoteIdAndRevisionBetweenOrderByRevision(note.getId(), 1, 12);
+        assertEquals(12, revisions.size());
+        for (NoteRevision revision : revisions) {
+            assertEquals((revision.getRevision() - 1) % 5, revision.getChainLength());
+            if (!revision.isSnapshot()) {
+                assertTrue(revision.getData().length < 40, "delta of revision " + revision.getRevision());
+            }
+        }
+        for (int i = 0; i < contents.size(); i++) {
+            assertEquals(contents.get(i), noteRevisionStore.contentOf(note.getId(), i + 1));
+        }
+    }
+
+    @Test
+    void record_WithUnchangedContent_ShouldNotAddARevision() {
+        // Given
+        write(BODY + "\nDone.\n");
+
+        // When
+        write(BODY + "\nDone.\n");
+
+        // Then
+        assertEquals(2, noteRevisionRepository.findFirstByNoteIdOrderByRevisionDesc(note.getId()).orElseThrow().getRevision());
+    }
+
+    @Test
+    void record_WithoutHistory_ShouldKeepReplacedContentAsFirstRevision() {
+        // Given : une note sans révision, importée par exemple
+        noteRevisionRepository.deleteAll();
+        noteRevisionRepository.flush();
+
+        // When
+        write("# Rewritten");
+
+        // Then
+        assertEquals(BODY, noteRevisionStore.contentOf(note.getId(), 1));
+        assertEquals("# Rewritten", noteRevisionStore.contentOf(note.getId(), 2));
+    }
+
+    // Méthodes utilitaires privées
+
+    private String write(String content) {
+        String previous = note.getContentMd();
+        note.setContentMd(content);
+        noteRevisionStore.record(note, previous);
+        return content;
+    }
+}
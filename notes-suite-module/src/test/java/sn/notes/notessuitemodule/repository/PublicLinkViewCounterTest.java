@@ -0,0 +1,152 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.PublicLink;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.support.PublicLinkViewCounter;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PublicLinkViewCounter.class)
+public class PublicLinkViewCounterTest {
+    @Autowired
+    private PublicLinkViewCounter publicLinkViewCounter;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private PublicLink first;
+    private PublicLink second;
+
+    @BeforeEach
+    void setUp() {
+        User owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        Note note = entityManager.persist(Note.builder()
+                .title("Public")
+                .contentMd("# Public")
+                .owner(owner)
+                .build());
+        first = entityManager.persist(PublicLink.builder().note(note).urlToken("first").build());
+        second = entityManager.persist(PublicLink.builder().note(note).urlToken("second").build());
+        entityManager.flush();
+    }
+
+    @Test
+    void flush_ShouldWriteConcurrentViewsInOneBatch() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> views = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                views.add(executor.submit(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        publicLinkViewCounter.increment(first.getId());
+                    }
+                }));
+            }
+            for (Future<?> view : views) {
+                view.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        publicLinkViewCounter.increment(second.getId());
+
+        // When
+        long written = publicLinkViewCounter.flush();
+
+        // Then
+        assertEquals(8_001, written);
+        assertEquals(8_000, viewCountOf(first));
+        assertEquals(1, viewCountOf(second));
+    }
+
+    @Test
+    void flush_ShouldOnlyWriteViewsCountedSincePreviousFlush() {
+        // Given
+        publicLinkViewCounter.increment(first.getId());
+        publicLinkViewCounter.flush();
+
+        // When
+        long idle = publicLinkViewCounter.flush();
+        publicLinkViewCounter.increment(first.getId());
+        publicLinkViewCounter.increment(first.getId());
+        long written = publicLinkViewCounter.flush();
+
+        // Then
+        assertEquals(0, idle);
+        assertEquals(2, written);
+        assertEquals(3, viewCountOf(first));
+    }
+
+    @Test
+    void flush_WhileViewsArriveOnIdleCounters_ShouldNotLoseAny() throws Exception {
+        // Given : des vues espacées, les compteurs sont retirés puis recréés pendant les flushs
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        long written = 0;
+        try {
+            List<Future<?>> views = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                views.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        publicLinkViewCounter.increment(first.getId());
+                        Thread.yield();
+                    }
+                }));
+            }
+
+            // When
+            while (!views.stream().allMatch(Future::isDone)) {
+                written += publicLinkViewCounter.flush();
+            }
+            for (Future<?> view : views) {
+                view.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        written += publicLinkViewCounter.flush();
+
+        // Then
+        assertEquals(2_000, written);
+        assertEquals(2_000, viewCountOf(first));
+    }
+
+    // Méthodes utilitaires privées
+
+    private long viewCountOf(PublicLink link) {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM public_links WHERE id = :id",
+                Map.of("id", link.getId()), Long.class);
+    }
+}
@@ -0,0 +1,102 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.NoteTag;
+import sn.notes.notessuitemodule.domain.Tag;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.repository.support.TagCountRepairJob;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.dto.TagCountReport;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TagCountRepository.class, DatabasePlatform.class})
+public class TagCountRepositoryTest {
+    @Autowired
+    private TagCountRepository tagCountRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Requis par le listener JPA de User
+    @MockitoBean
+    private UserIdentityCache userIdentityCache;
+
+    private User owner;
+    private Tag work;
+    private Tag todo;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(User.builder()
+                .email("owner@example.com")
+                .passwordHash("hashedPassword")
+                .build());
+        work = entityManager.persist(Tag.builder().label("work").build());
+        todo = entityManager.persist(Tag.builder().label("todo").build());
+        entityManager.flush();
+    }
+
+    @Test
+    void applyDeltas_ShouldAccumulateCountsAndDropEmptyOnes() {
+        // Given
+        tagCountRepository.applyDeltas(owner.getId(), Map.of("work", 2, "todo", 1));
+
+        // When
+        tagCountRepository.applyDeltas(owner.getId(), Map.of("work", -1, "todo", -1, "unknown", 1));
+
+        // Then
+        assertEquals(List.of(new TagUsage("work", 1)), tagCountRepository.findUsagesByUserId(owner.getId()));
+        assertEquals(Map.of(work.getId(), 1L), tagCountRepository.findCountsByUserId(owner.getId()));
+    }
+
+    @Test
+    void repair_ShouldReportDriftThenRewriteCountsFromNoteTags() {
+        // Given : deux notes taguées "work", une "todo", et des comptages faux
+        for (int i = 0; i < 2; i++) {
+            Note note = entityManager.persist(Note.builder()
+                    .title("Note " + i)
+                    .owner(owner)
+                    .build());
+            entityManager.persist(NoteTag.builder().note(note).tag(work).build());
+            if (i == 0) {
+                entityManager.persist(NoteTag.builder().note(note).tag(todo).build());
+            }
+        }
+        entityManager.flush();
+        tagCountRepository.applyDeltas(owner.getId(), Map.of("work", 5));
+        TagCountRepairJob repairJob = new TagCountRepairJob(tagCountRepository, transactionManager);
+
+        // When
+        TagCountReport check = repairJob.check();
+        TagCountReport repair = repairJob.repair();
+
+        // Then
+        assertEquals(new TagCountReport(1, 1, 2, 0), check);
+        assertEquals(new TagCountReport(1, 1, 2, 2), repair);
+        assertEquals(List.of(new TagUsage("work", 2), new TagUsage("todo", 1)),
+                tagCountRepository.findUsagesByUserId(owner.getId()));
+        assertTrue(repairJob.check().consistent());
+    }
+}
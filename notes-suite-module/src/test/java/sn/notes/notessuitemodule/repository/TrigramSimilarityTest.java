@@ -0,0 +1,24 @@
+package sn.notes.notessuitemodule.repository;
+
+import org.junit.jupiter.api.Test;
+import sn.notes.notessuitemodule.repository.support.TrigramSimilarity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramSimilarityTest {
+
+    @Test
+    void wordSimilarity_ShouldMatchPostgresValues() {
+        // Valeurs de référence de la documentation pg_trgm
+        assertEquals(0.8, TrigramSimilarity.wordSimilarity("word", "two words"), 1e-6);
+        assertEquals(1.0, TrigramSimilarity.wordSimilarity("Word", "two WORD"), 1e-6);
+        assertEquals(0.0, TrigramSimilarity.wordSimilarity("word", "xyz"), 1e-6);
+    }
+
+    @Test
+    void wordSimilarity_ShouldScoreTyposAboveThresholdAndNullsAsNull() {
+        assertTrue(TrigramSimilarity.wordSimilarity("invoicng", "Re-invoicing") >= 0.6);
+        assertTrue(TrigramSimilarity.wordSimilarity("budget", "Re-invoicing") < 0.6);
+        assertNull(TrigramSimilarity.wordSimilarity("word", null));
+    }
+}
@@ -0,0 +1,74 @@
+package sn.notes.notessuitemodule.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenProviderTest {
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "testSecretKeyForJunitTestsOnly123456789");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", 7200000L);
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheMaxSize", 100L);
+        tokenProvider.init();
+    }
+
+    @Test
+    void getVerifiedClaims_ShouldParseTokenOnlyOnce() {
+        // Given
+        String token = tokenProvider.generateAccessToken(1L, "test@example.com");
+
+        // When
+        boolean valid = tokenProvider.validateToken(token);
+        String email = tokenProvider.getEmailFromToken(token);
+
+        // Then
+        assertTrue(valid);
+        assertEquals("test@example.com", email);
+        assertEquals(1, tokenProvider.getClaimsCacheMissCount());
+        assertEquals(1, tokenProvider.getClaimsCacheHitCount());
+    }
+
+    @Test
+    void getVerifiedClaims_WithTamperedToken_ShouldNotBeCached() {
+        // Given
+        String token = tokenProvider.generateAccessToken(1L, "test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // When & Then
+        assertFalse(tokenProvider.validateToken(tampered));
+        assertFalse(tokenProvider.validateToken(tampered));
+        assertEquals(0, tokenProvider.getClaimsCacheHitCount());
+    }
+
+    @Test
+    void getVerifiedClaims_WithExpiredToken_ShouldReturnEmpty() {
+        // Given
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", -1000L);
+        String token = tokenProvider.generateAccessToken(1L, "test@example.com");
+
+        // When & Then
+        assertTrue(tokenProvider.getVerifiedClaims(token).isEmpty());
+    }
+
+    @Test
+    void getUserId_ShouldReturnIdCarriedByAccessToken() {
+        // Given
+        String token = tokenProvider.generateAccessToken(42L, "test@example.com");
+
+        // When
+        Long userId = tokenProvider.getVerifiedClaims(token)
+                .map(JwtTokenProvider::getUserId)
+                .orElse(null);
+
+        // Then
+        assertEquals(42L, userId);
+    }
+}
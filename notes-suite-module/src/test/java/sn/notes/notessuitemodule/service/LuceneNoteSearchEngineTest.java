@@ -0,0 +1,196 @@
+package sn.notes.notessuitemodule.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
+import sn.notes.notessuitemodule.service.dto.NoteIndexRow;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.SearchIndexStatus;
+import sn.notes.notessuitemodule.service.dto.response.SearchPage;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.search.LuceneNoteSearchEngine;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LuceneNoteSearchEngineTest {
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 3, 1, 10, 0, 0, 123_456_000);
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path indexPath;
+
+    private LuceneNoteSearchEngine searchEngine;
+    private User owner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        searchEngine = new LuceneNoteSearchEngine(noteRepository, transactionManager);
+        ReflectionTestUtils.setField(searchEngine, "indexPath", indexPath);
+        ReflectionTestUtils.setField(searchEngine, "commitInterval", Duration.ofMinutes(1));
+        searchEngine.open();
+
+        owner = User.builder().id(1L).email("test@example.com").build();
+
+        List<NoteIndexRow> rows = List.of(
+                row(1L, 1L, "Budget 2026", "Numbers for the **next** year"),
+                row(2L, 1L, "Weekly meeting", "Discuss the budget and the hiring plan"),
+                row(3L, 1L, "Résumé", "Curriculum vitae"),
+                row(4L, 2L, "Budget of someone else", "Not visible"));
+        when(noteRepository.streamIndexRows()).thenReturn(rows.stream());
+        when(noteRepository.streamVersions()).thenAnswer(invocation ->
+                rows.stream().map(row -> new NoteVersion(row.id(), row.updatedAt())));
+        when(noteRepository.findTagLabelsByNoteIds(anyCollection())).thenReturn(Map.of(
+                1L, List.of("work", "finance"),
+                2L, List.of("work")));
+
+        searchEngine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchEngine.close();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirstAndOnlyReturnOwnNotes() {
+        // When
+        Page<NoteResponse> page = searchEngine.search(owner, criteria("budget"));
+
+        // Then
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(1L, 2L), page.getContent().stream().map(NoteResponse::id).toList());
+        NoteResponse first = page.getContent().get(0);
+        assertEquals(List.of("work", "finance"), first.tags());
+        assertEquals("test@example.com", first.ownerEmail());
+        assertEquals(UPDATED_AT, first.updatedAt());
+        assertNull(first.contentMd());
+    }
+
+    @Test
+    void search_ShouldTolerateTyposPrefixesAndAccents() {
+        assertEquals(List.of(1L, 2L), ids(searchEngine.search(owner, criteria("buget"))));
+        assertEquals(List.of(2L), ids(searchEngine.search(owner, criteria("discuss hir"))));
+        assertEquals(List.of(3L), ids(searchEngine.search(owner, criteria("resume"))));
+    }
+
+    @Test
+    void search_ShouldHighlightContentAndCountTags() {
+        // When
+        SearchPage<NoteResponse> page = (SearchPage<NoteResponse>) searchEngine.search(owner, criteria("budget"));
+
+        // Then
+        NoteResponse meeting = page.getContent().get(1);
+        assertEquals("Discuss the <mark>budget</mark> and the hiring plan", meeting.highlight());
+        assertEquals(Map.of("work", 2L, "finance", 1L), page.getTagFacets());
+    }
+
+    @Test
+    void onNoteChanged_ShouldIndexUpdatesAndRemoveDeletedNotes() throws Exception {
+        // Given
+        when(noteRepository.findIndexRowsByIdIn(List.of(3L)))
+                .thenReturn(List.of(row(3L, 1L, "Budget draft", "Rewritten")));
+
+        // When
+        searchEngine.onNoteChanged(NoteChangedEvent.saved(3L));
+        searchEngine.onNoteChanged(NoteChangedEvent.deleted(2L));
+
+        // Then
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(searchEngine.search(owner, criteria("budget")))));
+    }
+
+    @Test
+    void onNoteChanged_WithCloseWritesToSameNote_ShouldIndexLatestLast() throws Exception {
+        // Given : la première lecture voit l'ancien contenu et reste bloquée pendant la seconde écriture
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(noteRepository.findIndexRowsByIdIn(List.of(3L)))
+                .thenAnswer(invocation -> {
+                    reading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of(row(3L, 1L, "Résumé", "Stale draft"));
+                })
+                .thenReturn(List.of(row(3L, 1L, "Budget draft", "Rewritten")));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<?> first = executor.submit(() -> searchEngine.onNoteChanged(NoteChangedEvent.saved(3L)));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(() -> searchEngine.onNoteChanged(NoteChangedEvent.saved(3L)));
+            Thread.sleep(100);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertTrue(ids(searchEngine.search(owner, criteria("rewritten"))).contains(3L));
+        assertEquals(List.of(), ids(searchEngine.search(owner, criteria("stale"))));
+    }
+
+    @Test
+    void check_ShouldReportMissingStaleAndOrphanedNotes() {
+        // Given
+        when(noteRepository.streamVersions()).thenReturn(Stream.of(
+                new NoteVersion(1L, UPDATED_AT),
+                new NoteVersion(2L, UPDATED_AT.plusSeconds(1)),
+                new NoteVersion(3L, UPDATED_AT),
+                new NoteVersion(5L, UPDATED_AT)));
+
+        // When
+        SearchIndexStatus status = searchEngine.check();
+
+        // Then
+        assertEquals(new SearchIndexStatus(4, 4, 1, 1, 1), status);
+        assertFalse(status.consistent());
+    }
+
+    // Méthodes utilitaires privées
+
+    private static NoteSearchCriteria criteria(String query) {
+        return NoteSearchCriteria.builder().query(query).build();
+    }
+
+    private static List<Long> ids(Page<NoteResponse> page) {
+        return page.getContent().stream().map(NoteResponse::id).toList();
+    }
+
+    private static NoteIndexRow row(Long id, Long ownerId, String title, String contentMd) {
+        return new NoteIndexRow(id, ownerId, title, contentMd, contentMd, Visibility.PRIVATE, UPDATED_AT);
+    }
+}
@@ -0,0 +1,44 @@
+package sn.notes.notessuitemodule.service;
+
+import org.junit.jupiter.api.Test;
+import sn.notes.notessuitemodule.service.render.MarkdownRenderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MarkdownRendererTest {
+    private final MarkdownRenderer markdownRenderer = new MarkdownRenderer();
+
+    @Test
+    void render_ShouldRenderMarkdownWithGfmExtensions() {
+        // When
+        String html = markdownRenderer.render("# Title\n\n- [x] done\n- [ ] ~~todo~~\n\n| a | b |\n|---|---|\n| 1 | 2 |\n");
+
+        // Then
+        assertTrue(html.contains("<h1>Title</h1>"));
+        assertTrue(html.contains("<input type=\"checkbox\" disabled=\"\" checked=\"\">"));
+        assertTrue(html.contains("<del>todo</del>"));
+        assertTrue(html.contains("<td>1</td>"));
+    }
+
+    @Test
+    void render_ShouldEscapeRawHtml() {
+        // When
+        String html = markdownRenderer.render("Hello <script>alert(1)</script>\n\n<img src=x onerror=alert(1)>\n");
+
+        // Then
+        assertFalse(html.contains("<script"));
+        assertFalse(html.contains("<img"));
+        assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"));
+    }
+
+    @Test
+    void render_ShouldDropUnsafeUrlsAndMarkLinksAsUserContent() {
+        // When
+        String html = markdownRenderer.render("[bad](javascript:alert(1)) [data](data:text/html;base64,PHNjcmlwdD4=) [ok](https://example.com)");
+
+        // Then
+        assertFalse(html.contains("javascript:"));
+        assertFalse(html.contains("data:"));
+        assertTrue(html.contains("<a rel=\"nofollow ugc noopener noreferrer\" href=\"https://example.com\">ok</a>"));
+    }
+}
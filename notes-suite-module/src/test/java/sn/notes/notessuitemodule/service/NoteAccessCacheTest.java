@@ -0,0 +1,86 @@
+package sn.notes.notessuitemodule.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sn.notes.notessuitemodule.service.cache.NoteAccessCache;
+import sn.notes.notessuitemodule.service.event.NoteAccessChangedEvent;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NoteAccessCacheTest {
+    private NoteAccessCache noteAccessCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        noteAccessCache = new NoteAccessCache(new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void isSharedWith_ShouldLoadEachDecisionOnce() {
+        // When
+        boolean first = noteAccessCache.isSharedWith(1L, 2L, () -> load(true));
+        boolean second = noteAccessCache.isSharedWith(1L, 2L, () -> load(false));
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onAccessChanged_ShouldInvalidateOnlyThatDecision() {
+        // Given
+        noteAccessCache.isSharedWith(1L, 2L, () -> load(true));
+        noteAccessCache.isSharedWith(1L, 3L, () -> load(true));
+
+        // When
+        noteAccessCache.onAccessChanged(new NoteAccessChangedEvent(1L, 2L));
+
+        // Then
+        assertFalse(noteAccessCache.isSharedWith(1L, 2L, () -> load(false)));
+        assertTrue(noteAccessCache.isSharedWith(1L, 3L, () -> load(false)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void onNoteChanged_WhenDeleted_ShouldInvalidateAllUsersOfNote() {
+        // Given
+        noteAccessCache.isSharedWith(1L, 2L, () -> load(true));
+        noteAccessCache.isSharedWith(4L, 2L, () -> load(true));
+
+        // When
+        noteAccessCache.onNoteChanged(NoteChangedEvent.deleted(1L));
+
+        // Then
+        assertFalse(noteAccessCache.isSharedWith(1L, 2L, () -> load(false)));
+        assertTrue(noteAccessCache.isSharedWith(4L, 2L, () -> load(false)));
+    }
+
+    @Test
+    void isSharedWith_WhenRevokedDuringLoad_ShouldNotKeepDecision() {
+        // When : le partage est retiré pendant la lecture en base
+        boolean shared = noteAccessCache.isSharedWith(1L, 2L, () -> {
+            noteAccessCache.onAccessChanged(new NoteAccessChangedEvent(1L, 2L));
+            return load(true);
+        });
+
+        // Then
+        assertTrue(shared);
+        assertFalse(noteAccessCache.isSharedWith(1L, 2L, () -> load(false)));
+        assertEquals(2, loads.get());
+    }
+
+    // Méthodes utilitaires privées
+
+    private boolean load(boolean shared) {
+        loads.incrementAndGet();
+        return shared;
+    }
+}
@@ -0,0 +1,127 @@
+package sn.notes.notessuitemodule.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.service.impl.NoteExportServiceImpl;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteExportServiceImplTest {
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private NoteExportServiceImpl noteExportService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        noteExportService = new NoteExportServiceImpl(noteRepository, userService, objectMapper, entityManager);
+
+        User testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .build();
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneLinePerNoteAndClearContextPerBatch() throws Exception {
+        // Given
+        List<Note> notes = IntStream.rangeClosed(1, 501)
+                .mapToObj(i -> note((long) i, "Note " + i))
+                .toList();
+        when(noteRepository.streamAllByOwnerId(1L)).thenReturn(notes.stream());
+        when(noteRepository.findTagLabelsByNoteIds(anyCollection())).thenReturn(Map.of(1L, List.of("work")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        noteExportService.exportNdjson("test@example.com", output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(501, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Note 1", first.path("title").asText());
+        assertEquals("work", first.path("tags").path(0).asText());
+        assertEquals("test@example.com", first.path("ownerEmail").asText());
+
+        verify(noteRepository, times(2)).findTagLabelsByNoteIds(anyCollection());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportMarkdownZip_ShouldUseTagsAsFoldersAndTitleWithIdAsFileName() throws Exception {
+        // Given
+        when(noteRepository.streamAllByOwnerId(1L)).thenReturn(Stream.of(
+                note(1L, "Roadmap"),
+                note(2L, "Roadmap"),
+                note(3L, "a/b: c"),
+                // Titre déjà au format d'un nom suffixé par un id
+                note(4L, "Doc (6)"),
+                note(5L, "Doc"),
+                note(6L, "Doc")));
+        when(noteRepository.findTagLabelsByNoteIds(anyCollection())).thenReturn(Map.of(
+                1L, List.of("work", "projects"),
+                2L, List.of("work", "projects")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        noteExportService.exportMarkdownZip("test@example.com", output);
+
+        // Then
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                assertEquals("# content", new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("work/projects/Roadmap (1).md", "work/projects/Roadmap (2).md", "a_b_ c (3).md",
+                "Doc (6) (4).md", "Doc (5).md", "Doc (6).md"), names);
+    }
+
+    // Méthodes utilitaires privées
+
+    private static Note note(Long id, String title) {
+        return Note.builder()
+                .id(id)
+                .title(title)
+                .contentMd("# content")
+                .visibility(Visibility.PRIVATE)
+                .build();
+    }
+}
@@ -0,0 +1,234 @@
+package sn.notes.notessuitemodule.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import sn.notes.notessuitemodule.domain.Note;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.repository.NoteRepository;
+import sn.notes.notessuitemodule.repository.TagBatchRepository;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.NoteImportProgress;
+import sn.notes.notessuitemodule.service.impl.NoteExportServiceImpl;
+import sn.notes.notessuitemodule.service.impl.NoteImportServiceImpl;
+import sn.notes.notessuitemodule.service.interfaces.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteImportServiceImplTest {
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private TagBatchRepository tagBatchRepository;
+
+    @Mock
+    private TagCountRepository tagCountRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private NoteImportServiceImpl noteImportService;
+
+    private final List<NoteImportProgress> progress = new ArrayList<>();
+    private long nextNoteId = 1;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        noteImportService = new NoteImportServiceImpl(noteRepository, tagBatchRepository, tagCountRepository, userService,
+                new ObjectMapper(), validator, transactionManager, entityManager, eventPublisher);
+        ReflectionTestUtils.setField(noteImportService, "chunkSize", 2);
+
+        User testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .build();
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+    }
+
+    @Test
+    void importNdjson_ShouldWriteRowsInChunks() throws Exception {
+        // Given
+        mockSaveAll();
+        when(tagBatchRepository.upsertLabels(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Long> ids = new HashMap<>();
+            for (String label : invocation.<Collection<String>>getArgument(0)) {
+                ids.put(label, (long) label.hashCode());
+            }
+            return ids;
+        });
+        String ndjson = """
+                {"title":"First note","contentMd":"one","tags":["work","todo"]}
+                {"title":"Second note","tags":["work"]}
+
+                {"title":"Third note","contentMd":"three"}
+                """;
+
+        // When
+        noteImportService.importNdjson(input(ndjson), "test@example.com", progress::add);
+
+        // Then
+        assertEquals(3, progress.size());
+        assertEquals(2, progress.get(0).imported());
+        assertEquals(1, progress.get(1).imported());
+        assertTrue(progress.get(2).completed());
+        assertEquals(3, progress.get(2).totalImported());
+
+        verify(noteRepository, times(2)).saveAll(anyList());
+        // Les tags connus après le premier chunk ne sont pas réinsérés
+        verify(tagBatchRepository, times(1)).upsertLabels(anyCollection());
+        verify(tagBatchRepository).insertNoteTags(Map.of(
+                1L, List.of((long) "work".hashCode(), (long) "todo".hashCode()),
+                2L, List.of((long) "work".hashCode())));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importNdjson_WithInvalidRows_ShouldSkipAndReportThem() throws Exception {
+        // Given
+        mockSaveAll();
+        String ndjson = """
+                not json
+                {"title":"x"}
+                {"title":"Valid note"}
+                """;
+
+        // When
+        noteImportService.importNdjson(input(ndjson), "test@example.com", progress::add);
+
+        // Then
+        NoteImportProgress first = progress.get(0);
+        assertEquals(0, first.imported());
+        assertEquals(2, first.skipped());
+        assertEquals(List.of("Line 1: Invalid JSON", "Line 2: Title must be between 3 and 255 characters"),
+                first.errors());
+
+        NoteImportProgress last = progress.get(progress.size() - 1);
+        assertTrue(last.completed());
+        assertEquals(1, last.totalImported());
+        assertEquals(2, last.totalSkipped());
+        verify(noteRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void importNdjson_WhenChunkFails_ShouldStopAndReportFailure() throws Exception {
+        // Given
+        when(noteRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        String ndjson = """
+                {"title":"First note"}
+                {"title":"Second note"}
+                {"title":"Third note"}
+                """;
+
+        // When
+        noteImportService.importNdjson(input(ndjson), "test@example.com", progress::add);
+
+        // Then
+        assertEquals(1, progress.size());
+        assertFalse(progress.get(0).completed());
+        assertEquals(0, progress.get(0).totalImported());
+        verify(noteRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void importMarkdownZip_ShouldUseFileNameAsTitleAndFoldersAsTags() throws Exception {
+        // Given
+        List<Note> saved = mockSaveAll();
+        when(tagBatchRepository.upsertLabels(anyCollection())).thenReturn(Map.of("work", 10L, "projects", 11L));
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("work/projects/Roadmap.md"));
+            out.write("# Roadmap".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("work/projects/diagram.png"));
+            out.write(new byte[]{1, 2, 3});
+        }
+
+        // When
+        noteImportService.importMarkdownZip(new ByteArrayInputStream(zip.toByteArray()), "test@example.com", progress::add);
+
+        // Then
+        assertEquals(1, saved.size());
+        assertEquals("Roadmap", saved.get(0).getTitle());
+        assertEquals("# Roadmap", saved.get(0).getContentMd());
+        verify(tagBatchRepository).insertNoteTags(Map.of(1L, List.of(10L, 11L)));
+        assertTrue(progress.get(progress.size() - 1).completed());
+    }
+
+    @Test
+    void importMarkdownZip_OfMarkdownZipExport_ShouldKeepTitlesTagsAndContent() throws Exception {
+        // Given : export Markdown des notes d'un utilisateur, dont un titre déjà au format d'un nom suffixé
+        List<Note> exported = List.of(
+                exportedNote(41L, "Roadmap", "# Roadmap\n\n- ship"),
+                exportedNote(42L, "Doc (6)", "Draft"),
+                exportedNote(43L, "Budget 2026", ""));
+        when(noteRepository.streamAllByOwnerId(1L)).thenReturn(exported.stream());
+        when(noteRepository.findTagLabelsByNoteIds(anyCollection())).thenReturn(Map.of(41L, List.of("work", "projects")));
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        new NoteExportServiceImpl(noteRepository, userService, new ObjectMapper(), entityManager)
+                .exportMarkdownZip("test@example.com", zip);
+
+        List<Note> saved = mockSaveAll();
+        when(tagBatchRepository.upsertLabels(anyCollection())).thenReturn(Map.of("work", 10L, "projects", 11L));
+
+        // When
+        noteImportService.importMarkdownZip(new ByteArrayInputStream(zip.toByteArray()), "test@example.com", progress::add);
+
+        // Then
+        assertEquals(List.of("Roadmap", "Doc (6)", "Budget 2026"), saved.stream().map(Note::getTitle).toList());
+        assertEquals(List.of("# Roadmap\n\n- ship", "Draft", ""), saved.stream().map(Note::getContentMd).toList());
+        verify(tagBatchRepository).insertNoteTags(Map.of(1L, List.of(10L, 11L)));
+        assertEquals(3, progress.get(progress.size() - 1).totalImported());
+    }
+
+    // Méthodes utilitaires privées
+
+    private static Note exportedNote(Long id, String title, String contentMd) {
+        return Note.builder().id(id).title(title).contentMd(contentMd).build();
+    }
+
+    private List<Note> mockSaveAll() {
+        List<Note> saved = new ArrayList<>();
+        when(noteRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Note> notes = invocation.getArgument(0);
+            notes.forEach(note -> note.setId(nextNoteId++));
+            saved.addAll(notes);
+            return notes;
+        });
+        return saved;
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,27 +3,51 @@ package sn.notes.notessuitemodule.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import sn.notes.notessuitemodule.domain.Note;
 import sn.notes.notessuitemodule.domain.User;
 import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.exception.BadRequestException;
+import sn.notes.notessuitemodule.exception.ConflictException;
 import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
 import sn.notes.notessuitemodule.repository.NoteRepository;
 import sn.notes.notessuitemodule.repository.NoteTagRepository;
+import sn.notes.notessuitemodule.repository.TagBatchRepository;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
 import sn.notes.notessuitemodule.repository.TagRepository;
+import sn.notes.notessuitemodule.repository.support.DatabasePlatform;
+import sn.notes.notessuitemodule.service.criteria.NoteCursor;
+import sn.notes.notessuitemodule.service.criteria.NoteSearchCriteria;
 import sn.notes.notessuitemodule.service.dto.CreateNoteRequest;
 import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.dto.NoteVersion;
+import sn.notes.notessuitemodule.service.dto.PatchNoteContentRequest;
+import sn.notes.notessuitemodule.service.dto.TextEdit;
+import sn.notes.notessuitemodule.service.dto.response.CursorPage;
 import sn.notes.notessuitemodule.service.impl.NoteServiceImpl;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.interfaces.NoteSearchEngine;
 import sn.notes.notessuitemodule.service.interfaces.UserService;
 import sn.notes.notessuitemodule.service.mapper.NoteMapper;
+import sn.notes.notessuitemodule.service.revision.NoteRevisionStore;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,9 +64,27 @@ public class NoteServiceImplTest {
     @Mock
     private NoteTagRepository noteTagRepository;
 
+    @Mock
+    private TagBatchRepository tagBatchRepository;
+
+    @Mock
+    private TagCountRepository tagCountRepository;
+
+    @Mock
+    private NoteRevisionStore noteRevisionStore;
+
     @Mock
     private NoteMapper noteMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<NoteSearchEngine> noteSearchEngine;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
     @InjectMocks
     private NoteServiceImpl noteService;
 
@@ -77,6 +119,8 @@ public class NoteServiceImplTest {
                 1L,
                 "Test Note",
                 "# Test Content",
+                "Test Content",
+                null,
                 Visibility.PRIVATE,
                 "test@example.com",
                 List.of("test", "demo"),
@@ -104,6 +148,29 @@ public class NoteServiceImplTest {
         verify(noteMapper, times(1)).toResponse(any(Note.class));
     }
 
+    @Test
+    void createNote_ShouldAttachTagsInOneBatch() {
+        // Given
+        CreateNoteRequest request = new CreateNoteRequest(
+                "Test Note",
+                "# Test Content",
+                List.of("test", "demo", "test", " ")
+        );
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+        when(noteRepository.save(any(Note.class))).thenReturn(testNote);
+        when(tagBatchRepository.upsertLabels(any())).thenReturn(Map.of("test", 10L, "demo", 11L));
+
+        // When
+        noteService.createNote(request, "test@example.com");
+
+        // Then
+        verify(tagBatchRepository, times(1)).upsertLabels(Set.of("test", "demo"));
+        verify(tagBatchRepository, times(1)).insertNoteTags(Map.of(1L, List.of(10L, 11L)));
+        verify(tagCountRepository, times(1)).applyDeltas(1L, Map.of("test", 1, "demo", 1));
+        verify(tagRepository, never()).findByLabel(any());
+        verify(noteTagRepository, never()).save(any());
+    }
+
     @Test
     void createNote_WithInvalidUser_ShouldThrowException() {
         // Given
@@ -130,5 +197,111 @@ public class NoteServiceImplTest {
         // Then
         verify(noteRepository, times(1)).findById(1L);
         verify(noteRepository, times(1)).delete(testNote);
+        verify(eventPublisher, times(1)).publishEvent(NoteChangedEvent.deleted(1L));
+    }
+
+    @Test
+    void patchNoteContent_ShouldApplyEditsInOrder() {
+        // Given
+        LocalDateTime base = givenLockedNote();
+        when(noteRepository.saveAndFlush(testNote)).thenReturn(testNote);
+        PatchNoteContentRequest request = new PatchNoteContentRequest(base, List.of(
+                new TextEdit(2, 4, "New"),
+                new TextEdit(13, 0, "!")
+        ));
+
+        // When
+        NoteVersion version = noteService.patchNoteContent(1L, request, "test@example.com");
+
+        // Then
+        assertEquals("# New Content!", testNote.getContentMd());
+        assertEquals(new NoteVersion(1L, base), version);
+        verify(eventPublisher, times(1)).publishEvent(NoteChangedEvent.saved(1L));
+    }
+
+    @Test
+    void patchNoteContent_WithStaleBase_ShouldThrowConflict() {
+        // Given
+        LocalDateTime base = givenLockedNote();
+        PatchNoteContentRequest request = new PatchNoteContentRequest(base.minusSeconds(1), List.of(new TextEdit(0, 1, "")));
+
+        // When & Then
+        assertThrows(ConflictException.class, () -> noteService.patchNoteContent(1L, request, "test@example.com"));
+        assertEquals("# Test Content", testNote.getContentMd());
+        verify(noteRepository, never()).saveAndFlush(any(Note.class));
+    }
+
+    @Test
+    void patchNoteContent_WithEditOutsideContent_ShouldThrowBadRequest() {
+        // Given
+        LocalDateTime base = givenLockedNote();
+        PatchNoteContentRequest request = new PatchNoteContentRequest(base, List.of(new TextEdit(10, 5, "")));
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> noteService.patchNoteContent(1L, request, "test@example.com"));
+        verify(noteRepository, never()).saveAndFlush(any(Note.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchNotesByCursor_ShouldReturnNextCursorWithoutCounting() {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123456000);
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+        when(noteRepository.findListing(any(Specification.class), any(Sort.class), eq(3), eq(false)))
+                .thenReturn(List.of(listed(1L, updatedAt), listed(2L, updatedAt), listed(3L, updatedAt.minusDays(1))));
+
+        NoteSearchCriteria criteria = NoteSearchCriteria.builder()
+                .size(2)
+                .cursor("")
+                .build();
+
+        // When
+        CursorPage<NoteResponse> page = noteService.searchNotesByCursor(criteria, "test@example.com");
+
+        // Then
+        assertEquals(2, page.content().size());
+        assertEquals(new NoteCursor(updatedAt, 2L), NoteCursor.decode(page.nextCursor()));
+        verify(noteRepository, never()).count(any(Specification.class));
+        verify(noteMapper, never()).toResponse(any(Note.class));
+    }
+
+    @Test
+    void searchNotes_WithoutTrigramSearch_ShouldFallBackToSubstringByDate() {
+        // Given : base sans pg_trgm
+        NoteSearchCriteria criteria = NoteSearchCriteria.builder().query("invoi").match("fuzzy").build();
+        when(databasePlatform.hasTrigramSearch()).thenReturn(false);
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+        when(noteRepository.findListing(any(Specification.class), any(Pageable.class), eq(false))).thenReturn(Page.empty());
+
+        // When
+        noteService.searchNotes(criteria, "test@example.com");
+
+        // Then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(noteRepository).findListing(any(Specification.class), pageable.capture(), eq(false));
+        assertEquals(NoteSearchCriteria.MATCH_SUBSTRING, criteria.getMatch());
+        assertEquals(Sort.by(Sort.Direction.DESC, "updatedAt"), pageable.getValue().getSort());
+    }
+
+    @Test
+    void noteCursor_WithInvalidValue_ShouldThrowBadRequest() {
+        // When & Then
+        assertNull(NoteCursor.decode(" "));
+        assertThrows(BadRequestException.class, () -> NoteCursor.decode("not-a-cursor"));
+    }
+
+    // Méthodes utilitaires privées
+
+    private LocalDateTime givenLockedNote() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123456000);
+        testNote.setUpdatedAt(updatedAt);
+        when(noteRepository.findByIdForUpdate(1L)).thenReturn(java.util.Optional.of(testNote));
+        when(userService.findByEmail("test@example.com")).thenReturn(testUser);
+        return updatedAt;
+    }
+
+    private static NoteResponse listed(Long id, LocalDateTime updatedAt) {
+        return new NoteResponse(id, "Note " + id, null, null, null, Visibility.PRIVATE, "test@example.com", List.of(), null, updatedAt);
     }
 }
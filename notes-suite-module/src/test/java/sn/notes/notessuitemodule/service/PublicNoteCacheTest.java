@@ -0,0 +1,138 @@
+package sn.notes.notessuitemodule.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sn.notes.notessuitemodule.domain.enums.Visibility;
+import sn.notes.notessuitemodule.service.cache.PublicNoteCache;
+import sn.notes.notessuitemodule.service.cache.PublicNoteCache.PublicNote;
+import sn.notes.notessuitemodule.service.dto.NoteResponse;
+import sn.notes.notessuitemodule.service.event.NoteChangedEvent;
+import sn.notes.notessuitemodule.service.event.PublicLinkDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublicNoteCacheTest {
+    private PublicNoteCache publicNoteCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        publicNoteCache = new PublicNoteCache(new SimpleMeterRegistry(), Duration.ofMinutes(10), 100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_WithConcurrentMisses_ShouldLoadOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // When : le premier chargement est bloqué pendant que les autres requêtes arrivent
+            List<Future<PublicNote>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> publicNoteCache.get("token", () -> {
+                    loading.countDown();
+                    await(release);
+                    return load(1L, null);
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            for (Future<PublicNote> result : results) {
+                assertEquals(1L, result.get(5, TimeUnit.SECONDS).note().id());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_WithExpiredLink_ShouldNotServeItFromCache() {
+        // Given
+        publicNoteCache.get("token", () -> load(1L, LocalDateTime.now().minusSeconds(1)));
+
+        // When & Then
+        assertNull(publicNoteCache.getIfPresent("token"));
+        publicNoteCache.get("token", () -> load(1L, null));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onNoteChanged_ShouldInvalidateEveryLinkOfNote() {
+        // Given
+        publicNoteCache.get("first", () -> load(1L, null));
+        publicNoteCache.get("second", () -> load(1L, null));
+        publicNoteCache.get("other", () -> load(2L, null));
+
+        // When
+        publicNoteCache.onNoteChanged(NoteChangedEvent.saved(1L));
+
+        // Then
+        assertNull(publicNoteCache.getIfPresent("first"));
+        assertNull(publicNoteCache.getIfPresent("second"));
+        assertNotNull(publicNoteCache.getIfPresent("other"));
+    }
+
+    @Test
+    void onPublicLinkDeleted_ShouldInvalidateOnlyThatLink() {
+        // Given
+        publicNoteCache.get("first", () -> load(1L, null));
+        publicNoteCache.get("second", () -> load(1L, null));
+
+        // When
+        publicNoteCache.onPublicLinkDeleted(new PublicLinkDeletedEvent("first"));
+
+        // Then
+        assertNull(publicNoteCache.getIfPresent("first"));
+        assertNotNull(publicNoteCache.getIfPresent("second"));
+    }
+
+    @Test
+    void get_WhenNoteChangesDuringLoad_ShouldNotKeepNote() {
+        // When : la note est modifiée pendant la lecture en base
+        PublicNote note = publicNoteCache.get("token", () -> {
+            publicNoteCache.onNoteChanged(NoteChangedEvent.saved(1L));
+            return load(1L, null);
+        });
+
+        // Then
+        assertEquals(1L, note.note().id());
+        assertNull(publicNoteCache.getIfPresent("token"));
+    }
+
+    // Méthodes utilitaires privées
+
+    private PublicNote load(Long noteId, LocalDateTime expiresAt) {
+        loads.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        NoteResponse note = new NoteResponse(noteId, "Public", "# Public", null, null,
+                Visibility.PUBLIC, "owner@example.com", List.of(), now, now);
+        return new PublicNote(noteId * 10, note, expiresAt);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package sn.notes.notessuitemodule.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sn.notes.notessuitemodule.repository.TagCountRepository;
+import sn.notes.notessuitemodule.service.dto.TagUsage;
+import sn.notes.notessuitemodule.service.event.NoteTagsChangedEvent;
+import sn.notes.notessuitemodule.service.search.TagSuggestionIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TagSuggestionIndexTest {
+    @Mock
+    private TagCountRepository tagCountRepository;
+
+    private TagSuggestionIndex tagSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagSuggestionIndex = new TagSuggestionIndex(tagCountRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixIgnoringCaseAndRankByUsage() {
+        // Given
+        givenUsagesOfUser1();
+
+        // When
+        List<TagUsage> suggestions = tagSuggestionIndex.suggest(1L, " WOR", 10);
+
+        // Then
+        assertEquals(List.of(
+                new TagUsage("Workshop", 5),
+                new TagUsage("work", 3),
+                new TagUsage("workout", 3)), suggestions);
+        assertEquals(List.of(new TagUsage("travel", 8), new TagUsage("Workshop", 5)),
+                tagSuggestionIndex.suggest(1L, "", 2));
+        assertEquals(List.of(), tagSuggestionIndex.suggest(1L, "x", 10));
+    }
+
+    @Test
+    void onTagsChanged_ShouldReloadUserFromStoredCounts() {
+        // Given
+        givenUsagesOfUser1();
+        tagSuggestionIndex.suggest(1L, "w", 10);
+        when(tagCountRepository.findUsagesByUserId(1L)).thenReturn(List.of(
+                new TagUsage("wiki", 4),
+                new TagUsage("writing", 1)));
+
+        // When
+        tagSuggestionIndex.onTagsChanged(NoteTagsChangedEvent.of(1L, List.of("wiki", "wiki", "wiki", "writing"), List.of()));
+
+        // Then : le comptage relu en base inclut déjà le changement, il n'est pas appliqué une seconde fois
+        assertEquals(List.of(new TagUsage("wiki", 4), new TagUsage("writing", 1)), tagSuggestionIndex.suggest(1L, "w", 10));
+        verify(tagCountRepository, times(2)).findUsagesByUserId(1L);
+    }
+
+    @Test
+    void suggest_WhenTagsChangeDuringLoad_ShouldNotKeepCounts() {
+        // Given : les tags changent pendant la lecture en base
+        when(tagCountRepository.findUsagesByUserId(1L)).thenAnswer(invocation -> {
+            tagSuggestionIndex.onTagsChanged(NoteTagsChangedEvent.of(1L, List.of("work"), List.of()));
+            return List.of(new TagUsage("work", 1));
+        });
+
+        // When
+        tagSuggestionIndex.suggest(1L, "w", 10);
+        tagSuggestionIndex.suggest(1L, "w", 10);
+
+        // Then
+        verify(tagCountRepository, times(2)).findUsagesByUserId(1L);
+    }
+
+    @Test
+    void onTagsChanged_ShouldIgnoreUsersNotLoaded() {
+        // Given
+        when(tagCountRepository.findUsagesByUserId(2L)).thenReturn(List.of(new TagUsage("work", 1)));
+
+        // When
+        tagSuggestionIndex.onTagsChanged(NoteTagsChangedEvent.of(2L, List.of("work"), List.of()));
+
+        // Then : le comptage lu en base inclut déjà le changement
+        assertEquals(List.of(new TagUsage("work", 1)), tagSuggestionIndex.suggest(2L, "w", 10));
+    }
+
+    // Méthodes utilitaires privées
+
+    private void givenUsagesOfUser1() {
+        when(tagCountRepository.findUsagesByUserId(1L)).thenReturn(List.of(
+                new TagUsage("work", 3),
+                new TagUsage("Workshop", 5),
+                new TagUsage("wiki", 1),
+                new TagUsage("workout", 3),
+                new TagUsage("travel", 8)));
+    }
+}
@@ -0,0 +1,100 @@
+package sn.notes.notessuitemodule.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sn.notes.notessuitemodule.domain.User;
+import sn.notes.notessuitemodule.exception.ResourceNotFoundException;
+import sn.notes.notessuitemodule.repository.UserRepository;
+import sn.notes.notessuitemodule.service.cache.UserIdentityCache;
+import sn.notes.notessuitemodule.service.impl.UserServiceImpl;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityCache userIdentityCache;
+    private UserServiceImpl userService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityCache = new UserIdentityCache(new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+        userService = new UserServiceImpl(userRepository, userIdentityCache);
+
+        testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .passwordHash("hashedPassword")
+                .build();
+    }
+
+    @Test
+    void findByEmail_ShouldQueryRepositoryOnlyOnce() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // When
+        User first = userService.findByEmail("test@example.com");
+        User second = userService.findByEmail("test@example.com");
+
+        // Then
+        assertEquals(1L, first.getId());
+        assertEquals(1L, second.getId());
+        assertEquals("test@example.com", second.getEmail());
+        assertNull(second.getPasswordHash());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void findByEmail_WithUnknownEmail_ShouldNotCacheMiss() {
+        // Given
+        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> userService.findByEmail("unknown@example.com"));
+        assertThrows(ResourceNotFoundException.class, () -> userService.findByEmail("unknown@example.com"));
+        verify(userRepository, times(2)).findByEmail("unknown@example.com");
+    }
+
+    @Test
+    void findByEmailForAuthentication_ShouldBypassCache() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        userService.findByEmail("test@example.com");
+
+        // When
+        User user = userService.findByEmailForAuthentication("test@example.com");
+
+        // Then
+        assertEquals("hashedPassword", user.getPasswordHash());
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void createUser_ShouldEvictCachedIdentity() {
+        // Given
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        userService.findByEmail("test@example.com");
+
+        // When
+        userService.createUser("test@example.com", "hashedPassword");
+        userService.findByEmail("test@example.com");
+
+        // Then
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+}
@@ -8,6 +8,8 @@ export interface Note {
   id: number;
   title: string;
   contentMd: string;
+  // Aperçu renvoyé par les listes, qui n'incluent pas contentMd
+  excerpt?: string;
   visibility: Visibility;
   ownerEmail: string;
   tags: string[];
@@ -86,7 +86,8 @@ export class NoteListComponent implements OnInit {
       tag: this.selectedTag || undefined,
       page: this.currentPage,
       size: this.pageSize,
-      sortBy: 'updatedAt',
+      // Une recherche est triée par pertinence
+      sortBy: this.searchQuery ? 'relevance' : 'updatedAt',
       sortDirection: 'desc'
     };
 